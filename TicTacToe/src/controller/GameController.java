@@ -1,6 +1,8 @@
 package controller;
 
 import java.io.IOException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.regex.Pattern;
 
 import javax.swing.JOptionPane;
@@ -28,12 +30,14 @@ public class GameController {
 	private final GameBoard gameBoard;
 	private final WriteData writeData;
 	private final ReadData readData;
+	private final ScheduledExecutorService scheduler;
 
 	/**
 	 * Constructs a GameController object and initializes all the necessary components.
 	 * @throws IOException if an error occurs while reading data.
 	 */
 	public GameController() throws IOException {
+		this.scheduler = createScheduler();
 		this.playerRoster = new PlayerRoster();
 		this.main = new MainWindow(this);
 		this.gameBoard = new GameBoard(this, main);
@@ -42,6 +46,21 @@ public class GameController {
 		this.model = new GameModel(this);
 	}
 
+	/**
+	 * Creates the scheduler that plays the delayed moves of the bots. A single daemon thread serves every move,
+	 * and a cancelled move is removed from its queue at once.
+	 * @return The scheduler.
+	 */
+	private static ScheduledExecutorService createScheduler() {
+		ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, task -> {
+			Thread thread = new Thread(task, "Bot-moves");
+			thread.setDaemon(true);
+			return thread;
+		});
+		executor.setRemoveOnCancelPolicy(true);
+		return executor;
+	}
+
 	/**
 	 * Writes the game data and quits the game.
 	 * @throws IOException if an error occurs while writing data.
@@ -255,4 +274,12 @@ public class GameController {
 	public GameBoard getGameBoard() {
 		return gameBoard;
 	}
+
+	/**
+	 * Gets the scheduler shared by every delayed bot move of the game.
+	 * @return The scheduler.
+	 */
+	public ScheduledExecutorService getScheduler() {
+		return scheduler;
+	}
 }
@@ -1,18 +1,59 @@
 /**
  * The AiPlayer class represents an AI player that plays the best move in each turn of the game.
- * It uses the Minimax algorithm to evaluate and select the optimal move on the Tic-Tac-Toe board.
+ * It uses the Minimax algorithm, in its negamax form with alpha-beta pruning and principal variation search,
+ * to evaluate and select the optimal move on the Tic-Tac-Toe board.
+ * The search itself runs on the {@link BitBoard} masks of both sides rather than on the board of strings.
+ * Solved positions are kept in a {@link TranspositionTable} shared by all AI players, so positions solved
+ * in earlier moves or earlier games are looked up instead of being searched again.
+ * Wins and losses are scored by their distance: a win played on the move at ply p scores {@code WIN_SCORE - p},
+ * so Hal takes the fastest win and, when it cannot avoid a loss, puts it off as long as it can.
+ * On boards other than the classic one, Hal can also ponder: search its answers to the opponent's likely replies
+ * while the opponent is thinking, so that the answer to the reply actually played is ready at once.
+ * Late positions of those boards are scored from the {@link EndgameTablebase} of the board, when there is one,
+ * and their openings are played from the {@link OpeningBook} at the tiers that search no deeper than the book.
+ * Below {@link Difficulty#PERFECT}, every board is searched with the depth and time limits of Hal's {@link Difficulty}.
+ * A time limit can also be set on its own; the search then deepens iteratively and always answers in time.
+ * At the tiers that use it, a {@link ThreatSpaceSearch} first looks for a forced win made of fours and threes,
+ * which it finds far deeper than the depth limit; the normal search only runs when there is none.
  */
 package model;
 
-import java.util.Objects;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
 
 public class AiPlayer {
 
-    private static final int LOSE_SCORE = -10;
     private static final int WIN_SCORE = 10;
+    private static final int INFINITY = Integer.MAX_VALUE;
+    private static final TranspositionTable TABLE = new TranspositionTable(1 << 16);
+    private static final TranspositionTable MNK_TABLE = new TranspositionTable(1 << 18);
+    private static final int[] CELL_PRIORITY = { 4, 0, 2, 6, 8, 1, 3, 5, 7 };
+    private static final int THREAT_TIME_SHARE = 4;
+    private static final int ANALYSIS_DEPTH_LIMIT = 12;
+    private static final long ANALYSIS_TIME_LIMIT_MILLIS = 2000;
+    private static final int PONDER_REPLIES = 8;
+    private static final long PONDER_TIME_LIMIT_MILLIS = 1000;
     private String playerSymbol;
+    private int winLength;
     private int bestRow;
     private int bestCol;
+    private long nodeCount;
+    private long cutoffCount;
+    private long tableProbes;
+    private long tableHits;
+    private SearchStats stats = SearchStats.NONE;
+    private final Map<Long, Integer> ponderedMoves = new ConcurrentHashMap<>();
+    private final int[][] moveBuffers = new int[BitBoard.CELLS + 1][BitBoard.CELLS];
+    private volatile ParallelMnkSearch search;
+    private volatile MnkSearch analysis;
+    private volatile boolean cancelled;
+    private OpeningBook openingBook = OpeningBook.getDefault();
+    private Difficulty difficulty = Difficulty.PERFECT;
+    private long timeLimitMillis = Difficulty.PERFECT.getTimeLimitMillis();
+    private boolean threatSpaceSearch = Difficulty.PERFECT.usesThreatSpaceSearch();
     
     /**
      * Constructor for the AiPlayer class.
@@ -21,102 +62,319 @@ public class AiPlayer {
      * @param playerSymbol The symbol of the AI player (X or O).
      */
     public AiPlayer(String playerSymbol) {
+        this(playerSymbol, BitBoard.SIZE);
+    }
+
+    /**
+     * Constructor for the AiPlayer class on boards of any size.
+     * Initializes the AI player by setting the player's symbol and the number of symbols in a row needed to win.
+     *
+     * @param playerSymbol The symbol of the AI player (X or O).
+     * @param winLength    The number of symbols in a row needed to win.
+     */
+    public AiPlayer(String playerSymbol, int winLength) {
         this.playerSymbol = playerSymbol;
+        this.winLength = winLength;
     }
     
     /**
-     * Finds the best move given the current state of the game board using the Minimax algorithm.
+     * Finds the best move given the current state of the game board using the Minimax algorithm
+     * with alpha-beta pruning. The board is converted once into bitmasks and the whole search runs on those masks.
+     * Among moves with the same score the one that comes first in row-major order is chosen.
+     * Boards holding only X and O are answered from the {@link PerfectPlayTable} without any search.
+     * Boards of any other size, or with another win length, are searched with the {@link ParallelMnkSearch},
+     * and so is every board below {@link Difficulty#PERFECT}.
      *
      * @param board          The 2D array representing the Tic-Tac-Toe board.
      * @param opponentSymbol The symbol of the opponent player (X or O).
+     * @throws CancellationException if {@link #cancel()} was called before the search ended.
      */
     public void findBestMove(String[][] board, String opponentSymbol) {
-        int bestVal = Integer.MIN_VALUE;
-
-        for (int i = 0; i < 3; i++) {
-            for (int j = 0; j < 3; j++) {
-                if (board[i][j] == null) {
-                    board[i][j] = playerSymbol;
-                    int moveVal = minimax(board, 1, false, opponentSymbol);
-                    board[i][j] = null;
-
-                    if (moveVal > bestVal) {
-                        bestRow = i;
-                        bestCol = j;
-                        bestVal = moveVal;
-                    }
-                }
+        if (cancelled) {
+            throw new CancellationException("Search cancelled");
+        }
+
+        if (!isClassic(board) || difficulty != Difficulty.PERFECT) {
+            findBestMnkMove(board, opponentSymbol);
+            return;
+        }
+
+        int ai = BitBoard.maskOf(board, playerSymbol);
+        int opponent = BitBoard.maskOf(board, opponentSymbol);
+        int occupied = BitBoard.occupiedMask(board);
+        long start = System.nanoTime();
+        nodeCount = 0;
+        cutoffCount = 0;
+        tableProbes = 0;
+        tableHits = 0;
+        stats = SearchStats.NONE;
+
+        // Boards holding only the two players' symbols are already solved.
+        if (occupied == (ai | opponent)) {
+            int cell = PerfectPlayTable.bestCell(ai, opponent);
+            if (cell >= 0) {
+                bestRow = cell / BitBoard.SIZE;
+                bestCol = cell % BitBoard.SIZE;
+            }
+            return;
+        }
+
+        int[] moves = moveBuffers[0];
+        int count = orderMoves(ai, opponent, occupied, moves);
+        int bestVal = -INFINITY;
+        int bestCell = -1;
+
+        for (int i = 0; i < count; i++) {
+            int cell = moves[i];
+            int move = 1 << cell;
+            // A cell before the current best only has to match its score to replace it, a later one has to beat it.
+            int alpha = bestCell < 0 ? -INFINITY : (cell < bestCell ? bestVal - 1 : bestVal);
+            int moveVal = -negamax(opponent, ai | move, occupied | move, 1, -INFINITY, -alpha);
+
+            if (moveVal > alpha) {
+                bestCell = cell;
+                bestVal = moveVal;
             }
         }
+
+        if (bestCell >= 0) {
+            bestRow = bestCell / BitBoard.SIZE;
+            bestCol = bestCell % BitBoard.SIZE;
+        }
+        // The classic board is always searched to the end of the game.
+        int depth = Integer.bitCount(~occupied & BitBoard.FULL);
+        stats = new SearchStats(nodeCount, depth, System.nanoTime() - start, cutoffCount, tableProbes, tableHits);
     }
 
     /**
-     * A method that calculates whether it should minimize or maximize the score during the Minimax algorithm.
-     * The Minimax algorithm is used to determine the best possible move for the AI player.
+     * Finds the best move on a board other than the classic 3x3 one with the {@link ParallelMnkSearch},
+     * which uses all the threads of the common fork/join pool. Moves in the opening book, at the tiers that search
+     * no deeper than the book was built to, or found while pondering by this player or by the one handed to
+     * {@link #usePonderedMoves(AiPlayer)}, are played without any search, and positions solved while pondering
+     * are reused through the transposition table.
+     * A forced win found by the threat-space search, which may take a quarter of the time limit, is played without
+     * the full-width search, which gets the rest of the time otherwise.
      *
-     * @param board          The 2D array representing the Tic-Tac-Toe board.
-     * @param depth          The current depth of the search tree during the Minimax algorithm.
-     * @param isMax          A flag indicating if the current move should be maximized or minimized.
+     * @param board          The 2D array representing the board.
      * @param opponentSymbol The symbol of the opponent player (X or O).
-     * @return The calculated score for the current move during the Minimax algorithm.
      */
-    private int minimax(String[][] board, int depth, boolean isMax, String opponentSymbol) {
-        int score = evaluate(board, playerSymbol);
+    private void findBestMnkMove(String[][] board, String opponentSymbol) {
+        MnkBoard position = MnkBoard.fromStrings(board, winLength, playerSymbol, opponentSymbol);
+        long key = position.getHash();
+        Integer pondered = ponderedMoves.get(key);
+        // The book is as strong as the search that built it: it stands in for tiers that search no deeper.
+        int cell = difficulty.getDepthLimit() <= openingBook.getDepth() ? openingBook.lookup(key) : -1;
 
-        if (score == WIN_SCORE)
-            return score;
+        stats = SearchStats.NONE;
+        if (cell >= 0 && cell < position.getCellCount() && position.isEmpty(cell)) {
+            nodeCount = 0;
+        } else if (pondered != null) {
+            cell = pondered;
+            nodeCount = 0;
+        } else {
+            long start = System.nanoTime();
+            cell = threatSpaceSearch ? findThreatWin(position) : -1;
+            if (cell < 0) {
+                // The normal search gets what is left of the time limit.
+                long elapsedMillis = (System.nanoTime() - start) / 1_000_000L;
+                long remainingMillis = timeLimitMillis > 0 ? Math.max(1, timeLimitMillis - elapsedMillis) : 0;
+                ParallelMnkSearch search = startSearch(position, remainingMillis);
+                try {
+                    cell = search.findBestMove(position);
+                } finally {
+                    stats = stats.plus(search.getStats());
+                }
+            }
+            nodeCount = stats.getNodes();
+        }
 
-        if (score == LOSE_SCORE)
-            return score;
+        if (cell >= 0) {
+            bestRow = cell / position.getWidth();
+            bestCol = cell % position.getWidth();
+        }
+    }
 
-        if (!isMoveLeft(board))
-            return 0;
+    /**
+     * Scores every legal move of Hal with its principal variation, in one search sharing the transposition table
+     * with Hal's other searches on boards of this kind. It powers hints and blunder checks: a move scoring well
+     * below the first one of the list is a mistake. Every board, the classic one included, is analysed with the
+     * {@link MnkSearch} within the depth limit of Hal's {@link Difficulty}, so the scores of all boards compare alike.
+     * The analysis deepens iteratively within Hal's time limit; {@link Difficulty#PERFECT}, which has neither limit,
+     * is analysed to {@value #ANALYSIS_DEPTH_LIMIT} plies within {@value #ANALYSIS_TIME_LIMIT_MILLIS} ms, which still
+     * solves the classic board.
+     *
+     * @param board          The 2D array representing the board, with Hal to move.
+     * @param opponentSymbol The symbol of the opponent player (X or O).
+     * @return The analysis of every empty cell, best move first, or an empty list if the game is over.
+     * @throws CancellationException if {@link #cancel()} was called before the analysis ended.
+     */
+    public List<MoveAnalysis> analyze(String[][] board, String opponentSymbol) {
+        if (cancelled) {
+            throw new CancellationException("Search cancelled");
+        }
 
-        return isMax ? maximize(board, depth, opponentSymbol) : minimize(board, depth, opponentSymbol);
+        MnkBoard position = MnkBoard.fromStrings(board, winLength, playerSymbol, opponentSymbol);
+        MnkSearch analysis = new MnkSearch(MNK_TABLE);
+        analysis.setTablebase(EndgameTablebase.getDefault(position.getWidth(), position.getHeight(),
+                position.getWinLength()));
+        analysis.setDepthLimit(Math.min(difficulty.getDepthLimit(), ANALYSIS_DEPTH_LIMIT));
+        analysis.setTimeLimit(timeLimitMillis > 0 ? timeLimitMillis : ANALYSIS_TIME_LIMIT_MILLIS);
+        this.analysis = analysis;
+        if (cancelled) {
+            analysis.cancel();
+        }
+
+        try {
+            return analysis.analyze(position);
+        } finally {
+            stats = analysis.getStats();
+            nodeCount = stats.getNodes();
+        }
     }
 
     /**
-     * A helper method used by the Minimax algorithm to maximize the score for the AI player.
+     * Looks for a forced win of fours and threes with the {@link ThreatSpaceSearch}, within a share of the time limit.
+     */
+    private int findThreatWin(MnkBoard position) {
+        long start = System.nanoTime();
+        ThreatSpaceSearch threats = new ThreatSpaceSearch();
+        if (timeLimitMillis > 0) {
+            threats.setTimeLimit(Math.max(1, timeLimitMillis / THREAT_TIME_SHARE));
+        }
+        int cell = threats.findWin(position);
+        stats = new SearchStats(threats.getNodeCount(), threats.getWinPlies(), System.nanoTime() - start, 0, 0, 0);
+        return cell;
+    }
+
+    /**
+     * Searches the best answer to each of the {@value #PONDER_REPLIES} likeliest replies of the opponent, in the order
+     * the search would try them, and keeps the answers for {@link #findBestMove(String[][], String)}. It is meant to
+     * run in the background while the opponent is thinking, and to be stopped with {@link #cancel()} once the opponent
+     * has moved. Each answer gets Hal's time limit, or {@value #PONDER_TIME_LIMIT_MILLIS} ms at tiers without one,
+     * where an answer that runs out of time is dropped, as it is weaker than the search it would stand in for.
+     * On the classic board at {@link Difficulty#PERFECT} it does nothing, since every answer is already in the
+     * {@link PerfectPlayTable}.
      *
-     * @param board          The 2D array representing the Tic-Tac-Toe board.
-     * @param depth          The current depth of the search tree during the Minimax algorithm.
+     * @param board          The 2D array representing the board, with the opponent to move.
      * @param opponentSymbol The symbol of the opponent player (X or O).
-     * @return The maximum score achieved during the Minimax algorithm for the AI player's moves.
+     * @throws CancellationException if {@link #cancel()} was called before every reply was searched.
      */
-    private int maximize(String[][] board, int depth, String opponentSymbol) {
-        int best = Integer.MIN_VALUE;
+    public void ponder(String[][] board, String opponentSymbol) {
+        if (isClassic(board) && difficulty == Difficulty.PERFECT) {
+            return;
+        }
+
+        MnkBoard position = MnkBoard.fromStrings(board, winLength, opponentSymbol, playerSymbol);
+        int[] replies = new int[position.getCellCount()];
+        int count = Math.min(MnkSearch.orderMoves(position, replies), PONDER_REPLIES);
+        long replyMillis = timeLimitMillis > 0 ? timeLimitMillis : PONDER_TIME_LIMIT_MILLIS;
+        ponderedMoves.clear();
+        stats = SearchStats.NONE;
+
+        for (int i = 0; i < count; i++) {
+            int row = replies[i] / position.getWidth();
+            int col = replies[i] % position.getWidth();
+            String[][] next = new String[board.length][];
+            for (int r = 0; r < board.length; r++) {
+                next[r] = board[r].clone();
+            }
+            next[row][col] = opponentSymbol;
 
-        for (int i = 0; i < 3; i++) {
-            for (int j = 0; j < 3; j++) {
-                if (board[i][j] == null) {
-                    board[i][j] = playerSymbol;
-                    best = Math.max(best, minimax(board, depth + 1, false, opponentSymbol));
-                    board[i][j] = null;
+            MnkBoard answer = MnkBoard.fromStrings(next, winLength, playerSymbol, opponentSymbol);
+            if (!answer.isGameOver()) {
+                ParallelMnkSearch search = startSearch(answer, replyMillis);
+                try {
+                    int cell = search.findBestMove(answer);
+                    if (timeLimitMillis > 0 || !search.isTimedOut()) {
+                        ponderedMoves.put(answer.getHash(), cell);
+                    }
+                    if (cancelled) {
+                        ponderedMoves.clear(); // cancel() may have cleared the answers just before this one.
+                    }
+                } finally {
+                    stats = stats.plus(search.getStats());
                 }
             }
         }
+    }
 
-        return best;
+    /**
+     * Creates the search for a position with the depth limit of the difficulty and a time limit,
+     * already cancelled if {@link #cancel()} was called.
+     */
+    private ParallelMnkSearch startSearch(MnkBoard position, long timeLimitMillis) {
+        ParallelMnkSearch search = new ParallelMnkSearch(ForkJoinPool.commonPool(), MNK_TABLE);
+        search.setTablebase(EndgameTablebase.getDefault(position.getWidth(), position.getHeight(),
+                position.getWinLength()));
+        search.setDepthLimit(difficulty.getDepthLimit());
+        search.setTimeLimit(timeLimitMillis);
+        this.search = search;
+        if (cancelled) {
+            search.cancel();
+        }
+        return search;
     }
 
     /**
-     * A helper method used by the Minimax algorithm to minimize the score for the opponent player.
+     * Lets this player answer from the moves another player found while pondering, as if it had pondered itself.
+     * The answers are only taken if the ponderer played the same side of the same board with the same difficulty,
+     * time limit and threat-space search, since an answer found with smaller limits is no answer at larger ones.
+     * They are copied, so the ponderer can be cancelled afterwards; any answers taken before are dropped.
      *
-     * @param board          The 2D array representing the Tic-Tac-Toe board.
-     * @param depth          The current depth of the search tree during the Minimax algorithm.
-     * @param opponentSymbol The symbol of the opponent player (X or O).
-     * @return The minimum score achieved during the Minimax algorithm for the opponent's moves.
+     * @param ponderer The player that pondered the position before the opponent's move.
      */
-    private int minimize(String[][] board, int depth, String opponentSymbol) {
-        int best = Integer.MAX_VALUE;
+    public void usePonderedMoves(AiPlayer ponderer) {
+        ponderedMoves.clear();
+        if (ponderer.playerSymbol.equals(playerSymbol) && ponderer.winLength == winLength
+                && ponderer.difficulty == difficulty && ponderer.timeLimitMillis == timeLimitMillis
+                && ponderer.threatSpaceSearch == threatSpaceSearch) {
+            ponderedMoves.putAll(ponderer.ponderedMoves);
+        }
+    }
 
-        for (int i = 0; i < 3; i++) {
-            for (int j = 0; j < 3; j++) {
-                if (board[i][j] == null) {
-                    board[i][j] = opponentSymbol;
-                    best = Math.min(best, minimax(board, depth + 1, true, opponentSymbol));
-                    board[i][j] = null;
-                }
+    private boolean isClassic(String[][] board) {
+        return board.length == BitBoard.SIZE && board[0].length == BitBoard.SIZE && winLength == BitBoard.SIZE;
+    }
+
+    /**
+     * Stops the running search, and any later one. It is safe to call from any thread,
+     * so a search running in the background can be abandoned when the game ends.
+     */
+    public void cancel() {
+        cancelled = true;
+        ponderedMoves.clear();
+        ParallelMnkSearch current = search;
+        if (current != null) {
+            current.cancel();
+        }
+        MnkSearch currentAnalysis = analysis;
+        if (currentAnalysis != null) {
+            currentAnalysis.cancel();
+        }
+    }
+
+    /**
+     * Finds every move that reaches the best score in a position, searching each of them with a full window.
+     * This is used to build the {@link PerfectPlayTable}.
+     *
+     * @param ai       The cells owned by the side to move.
+     * @param opponent The cells owned by the other side.
+     * @param occupied The cells that are not empty.
+     * @return The mask of the optimal cells, or 0 if the board is full.
+     */
+    int optimalMoves(int ai, int opponent, int occupied) {
+        int bestVal = -INFINITY;
+        int best = 0;
+
+        for (int free = ~occupied & BitBoard.FULL; free != 0; free &= free - 1) {
+            int move = free & -free;
+            int moveVal = -negamax(opponent, ai | move, occupied | move, 1, -INFINITY, INFINITY);
+
+            if (moveVal > bestVal) {
+                bestVal = moveVal;
+                best = move;
+            } else if (moveVal == bestVal) {
+                best |= move;
             }
         }
 
@@ -124,85 +382,242 @@ public class AiPlayer {
     }
 
     /**
-     * Evaluates the current state of the board and returns a score based on the player's symbol.
-     * A higher score means a more favorable outcome for the AI player.
+     * Scores a position with the Minimax algorithm in its negamax form: every score is seen from the side to move,
+     * so the score of a position is the opposite of the best score of the positions its moves lead to.
+     * The first move of a node is searched with the full window; the others are first searched with a null window,
+     * which only proves that they are no better, and are searched again with the full window if they turn out to be.
+     * Scores outside the (alpha, beta) window are only bounds: the search stops as soon as it can prove them.
      *
-     * @param board        The 2D array representing the Tic-Tac-Toe board.
-     * @param playerSymbol The symbol of the AI player (X or O).
-     * @return The score indicating the desirability of the board state for the AI player.
+     * @param mover    The cells owned by the side to move.
+     * @param other    The cells owned by the other side.
+     * @param occupied The cells that are not empty, including cells holding any other symbol.
+     * @param depth    The current depth of the search tree, 0 at the root.
+     * @param alpha    The score the side to move is already assured of.
+     * @param beta     The score the other side is already assured of.
+     * @return The score of the position for the side to move.
      */
-    private int evaluate(String[][] board, String playerSymbol) {
-    	
-        String opponentSymbol = playerSymbol.equals("X") ? "O" : "X";
+    private int negamax(int mover, int other, int occupied, int depth, int alpha, int beta) {
+        nodeCount++;
 
-        if (hasVictory(board, playerSymbol)) {
-            return WIN_SCORE;
+        // The winning move was played on the previous ply.
+        if (BitBoard.hasWin(other))
+            return -(WIN_SCORE - (depth - 1));
+
+        if (BitBoard.hasWin(mover))
+            return WIN_SCORE - (depth - 1);
+
+        if (!isMoveLeft(occupied))
+            return 0;
+
+        // Mate-distance pruning: the side to move cannot do better than winning on this ply,
+        // nor worse than losing on the next one, so a window outside of that range is already decided.
+        int upper = WIN_SCORE - depth;
+        int lower = -(WIN_SCORE - (depth + 1));
+
+        if (alpha >= upper)
+            return upper;
+
+        if (beta <= lower)
+            return lower;
+
+        long key = positionKey(mover, other, occupied);
+        long entry = TABLE.probe(key);
+        tableProbes++;
+        if (entry != TranspositionTable.MISS) {
+            tableHits++;
+            int cached = TranspositionTable.fromStored(TranspositionTable.score(entry), depth);
+            int bound = TranspositionTable.bound(entry);
+
+            if (bound == TranspositionTable.EXACT
+                    || (bound == TranspositionTable.LOWER && cached >= beta)
+                    || (bound == TranspositionTable.UPPER && cached <= alpha))
+                return cached;
         }
 
-        if (hasVictory(board, opponentSymbol)) {
-            return LOSE_SCORE;
+        int alphaStart = alpha;
+        int best = -INFINITY;
+        int[] moves = moveBuffers[depth];
+        int count = orderMoves(mover, other, occupied, moves);
+
+        for (int i = 0; i < count; i++) {
+            int move = 1 << moves[i];
+            int score;
+
+            if (i == 0) {
+                score = -negamax(other, mover | move, occupied | move, depth + 1, -beta, -alpha);
+            } else {
+                score = -negamax(other, mover | move, occupied | move, depth + 1, -alpha - 1, -alpha);
+                if (score > alpha && score < beta)
+                    score = -negamax(other, mover | move, occupied | move, depth + 1, -beta, -alpha);
+            }
+
+            best = Math.max(best, score);
+            alpha = Math.max(alpha, score);
+
+            if (alpha >= beta) {
+                cutoffCount++;
+                break;
+            }
         }
 
-        return 0;
+        int bound = TranspositionTable.EXACT;
+        if (best <= alphaStart)
+            bound = TranspositionTable.UPPER;
+        else if (best >= beta)
+            bound = TranspositionTable.LOWER;
+
+        TABLE.store(key, TranspositionTable.toStored(best, depth), bound);
+        return best;
     }
 
     /**
-     * Checks whether a given symbol has achieved victory on the Tic-Tac-Toe board.
-     * The method examines rows, columns, and diagonals for symbol victory.
+     * Builds the transposition table key of a position as seen by the side to move.
+     * Because the key is relative to the mover, the same entry serves an AI playing X and an AI playing O,
+     * and because it is canonical, the same entry serves all rotations and reflections of the position.
      *
-     * @param board  The 2D array representing the Tic-Tac-Toe board.
-     * @param symbol The symbol (X or O) to check for victory.
-     * @return {@code true} if the symbol has achieved victory, {@code false} otherwise.
+     * @param mover    The cells owned by the side to move.
+     * @param other    The cells owned by the other side.
+     * @param occupied The cells that are not empty.
+     * @return The key of the position.
+     */
+    private static long positionKey(int mover, int other, int occupied) {
+        return Symmetry.canonicalKey(mover, other, occupied & ~(mover | other));
+    }
+
+    /**
+     * Lists the empty cells in the order they should be searched: immediate wins of the side to move,
+     * then cells that block an immediate win of the other side, then the center, the corners and the edges.
+     * Trying the strongest moves first lets alpha-beta cut the remaining ones as early as possible.
      *
-     * @implNote This method uses Objects.equals for comparing the contents of String objects
-     *           instead of using the equals or == operator. The reason for using Objects.equals
-     *           is to ensure null safety during comparisons and to correctly handle array
-     *           comparisons, as the input board is a 2D array of strings. Objects.equals
-     *           will safely compare the contents of the strings, considering multidimensional arrays.
-     *           Using Objects.equals ensures safer and more reliable comparisons of objects
-     *           for content equality.
+     * @param mover    The cells owned by the side to move.
+     * @param other    The cells owned by the other side.
+     * @param occupied The cells that are not empty.
+     * @param moves    The buffer that receives the cell indices.
+     * @return The number of moves written to the buffer.
      */
-    private boolean hasVictory(String[][] board, String symbol) {
-        // Checking for Rows and Columns for symbol victory.
-        for (int i = 0; i < 3; i++) {
-            if (Objects.equals(board[i][0], board[i][1]) && Objects.equals(board[i][0], board[i][2])
-                    && Objects.equals(board[i][1], board[i][2]) && Objects.equals(board[i][0], symbol)) {
-                return true;
-            }
+    private static int orderMoves(int mover, int other, int occupied, int[] moves) {
+        int free = ~occupied & BitBoard.FULL;
+        int wins = BitBoard.winningCells(mover, free);
+        int blocks = BitBoard.winningCells(other, free) & ~wins;
+        int rest = free & ~(wins | blocks);
+        int count = 0;
 
-            if (Objects.equals(board[0][i], board[1][i]) && Objects.equals(board[0][i], board[2][i])
-                    && Objects.equals(board[1][i], board[2][i]) && Objects.equals(board[0][i], symbol)) {
-                return true;
-            }
+        for (; wins != 0; wins &= wins - 1)
+            moves[count++] = Integer.numberOfTrailingZeros(wins);
+
+        for (; blocks != 0; blocks &= blocks - 1)
+            moves[count++] = Integer.numberOfTrailingZeros(blocks);
+
+        for (int cell : CELL_PRIORITY) {
+            if ((rest & (1 << cell)) != 0)
+                moves[count++] = cell;
         }
 
-        // Checking for Diagonals for symbol victory.
-        if ((Objects.equals(board[0][0], symbol) && Objects.equals(board[1][1], symbol) && Objects.equals(board[2][2], symbol))
-        	    || (Objects.equals(board[0][2], symbol) && Objects.equals(board[1][1], symbol) && Objects.equals(board[2][0], symbol))) {
-        	    return true;
-        	}
+        return count;
+    }
+
+    /**
+     * Checks if there are any available moves left on the board.
+     *
+     * @param occupied The cells that are not empty.
+     * @return {@code true} if there are available moves, {@code false} otherwise.
+     */
+    private boolean isMoveLeft(int occupied) {
+        return occupied != BitBoard.FULL;
+    }
+
+    /**
+     * Gets the transposition table shared by all AI players.
+     *
+     * @return The shared transposition table, whose hit and miss counters cover every search so far.
+     */
+    public static TranspositionTable getTranspositionTable() {
+        return TABLE;
+    }
+
+    /**
+     * Sets the opening book checked before searching boards other than the classic one. Its moves are only played
+     * at tiers whose depth limit is at most {@link OpeningBook#getDepth()}, so a tier that searches deeper than the book
+     * is never weakened by it; only a book solved to the end of the game serves {@link Difficulty#PERFECT}.
+     * By default it is the book of {@link OpeningBook#getDefault()}.
+     *
+     * @param openingBook The opening book.
+     */
+    public void setOpeningBook(OpeningBook openingBook) {
+        this.openingBook = openingBook;
+    }
+
+    public OpeningBook getOpeningBook() {
+        return openingBook;
+    }
 
+    /**
+     * Sets how deep and how long Hal searches. By default it is {@link Difficulty#PERFECT}.
+     * This also resets the time limit and the threat-space search mode to those of the difficulty.
+     *
+     * @param difficulty The difficulty tier.
+     */
+    public void setDifficulty(Difficulty difficulty) {
+        ponderedMoves.clear();
+        this.difficulty = difficulty;
+        this.timeLimitMillis = difficulty.getTimeLimitMillis();
+        this.threatSpaceSearch = difficulty.usesThreatSpaceSearch();
+    }
 
+    public Difficulty getDifficulty() {
+        return difficulty;
+    }
 
-        return false;
+    /**
+     * Sets the longest time a move may take, in place of the time limit of the difficulty.
+     * Moves answered from the {@link PerfectPlayTable}, the opening book or pondering take no search time.
+     *
+     * @param timeLimitMillis The time limit in milliseconds, or 0 for no limit.
+     */
+    public void setTimeLimit(long timeLimitMillis) {
+        ponderedMoves.clear();
+        this.timeLimitMillis = timeLimitMillis;
     }
 
+    public long getTimeLimit() {
+        return timeLimitMillis;
+    }
 
     /**
-     * Checks if there are any available moves left on the board.
+     * Turns the threat-space search for forced wins on or off, in place of the choice of the difficulty.
+     * It applies to every board searched with the {@link ParallelMnkSearch}.
      *
-     * @param board The 2D array representing the Tic-Tac-Toe board.
-     * @return {@code true} if there are available moves, {@code false} otherwise.
+     * @param threatSpaceSearch {@code true} to look for forced wins before the normal search.
      */
-    private boolean isMoveLeft(String[][] board) {
-        for (int i = 0; i < 3; i++) {
-            for (int j = 0; j < 3; j++) {
-                if (board[i][j] == null) {
-                    return true;
-                }
-            }
-        }
-        return false;
+    public void setThreatSpaceSearch(boolean threatSpaceSearch) {
+        ponderedMoves.clear();
+        this.threatSpaceSearch = threatSpaceSearch;
+    }
+
+    public boolean isThreatSpaceSearch() {
+        return threatSpaceSearch;
+    }
+
+    /**
+     * Gets the number of positions visited by the last call to {@link #findBestMove(String[][], String)}.
+     * Moves answered from the {@link PerfectPlayTable}, the opening book or pondering visit no positions.
+     *
+     * @return The node count of the last search.
+     */
+    public long getNodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * Gets the statistics of the last call to {@link #findBestMove(String[][], String)},
+     * {@link #ponder(String[][], String)} or {@link #analyze(String[][], String)}, even one that was cancelled.
+     * The threat-space search adds its nodes and time, and the length of the win it found as its depth.
+     * A move taken from the opening book, from pondering or from the {@link PerfectPlayTable} has empty statistics.
+     *
+     * @return The statistics of the last search, added up over all the searches it ran.
+     */
+    public SearchStats getStats() {
+        return stats;
     }
 
     public int getBestRow() {
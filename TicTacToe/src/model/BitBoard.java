@@ -0,0 +1,108 @@
+/**
+ * The BitBoard class provides the bitmask representation of the 3x3 Tic-Tac-Toe board used by the AI search.
+ * Each side is kept as a 9-bit mask where cell (row, column) maps to bit {@code row * 3 + column},
+ * so wins can be checked against the 8 precomputed line masks without touching any strings.
+ */
+package model;
+
+public final class BitBoard {
+
+    public static final int SIZE = 3;
+    public static final int CELLS = SIZE * SIZE;
+    public static final int FULL = (1 << CELLS) - 1;
+
+    /**
+     * The 8 winning lines of the board: 3 rows, 3 columns and 2 diagonals.
+     */
+    private static final int[] LINES = {
+            0b000_000_111, 0b000_111_000, 0b111_000_000,
+            0b001_001_001, 0b010_010_010, 0b100_100_100,
+            0b100_010_001, 0b001_010_100
+    };
+
+    private BitBoard() {
+    }
+
+    /**
+     * Gets the single-bit mask of a cell.
+     *
+     * @param row    The row index of the cell (0-2).
+     * @param column The column index of the cell (0-2).
+     * @return The mask with only the bit of the cell set.
+     */
+    public static int bit(int row, int column) {
+        return 1 << (row * SIZE + column);
+    }
+
+    /**
+     * Checks whether a mask contains one of the 8 winning lines.
+     *
+     * @param mask The cells owned by one side.
+     * @return {@code true} if the side owns a complete line, {@code false} otherwise.
+     */
+    public static boolean hasWin(int mask) {
+        for (int line : LINES) {
+            if ((mask & line) == line) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Finds the empty cells that would complete a line for a side, i.e. its immediate wins.
+     *
+     * @param mask The cells owned by the side.
+     * @param free The empty cells of the board.
+     * @return The mask of the empty cells that complete one of the side's lines.
+     */
+    public static int winningCells(int mask, int free) {
+        int cells = 0;
+        for (int line : LINES) {
+            int missing = line & ~mask;
+            if (missing != 0 && (missing & (missing - 1)) == 0) {
+                cells |= missing;
+            }
+        }
+        return cells & free;
+    }
+
+    /**
+     * Builds the mask of the cells holding a given symbol.
+     * Only the top-left 3x3 area of the board is examined.
+     *
+     * @param board  The 2D array representing the Tic-Tac-Toe board.
+     * @param symbol The symbol (X or O) to collect.
+     * @return The mask of the cells holding the symbol.
+     */
+    public static int maskOf(String[][] board, String symbol) {
+        int mask = 0;
+        for (int i = 0; i < SIZE; i++) {
+            for (int j = 0; j < SIZE; j++) {
+                if (symbol.equals(board[i][j])) {
+                    mask |= bit(i, j);
+                }
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Builds the mask of all non-empty cells, whatever symbol they hold.
+     * Only the top-left 3x3 area of the board is examined.
+     *
+     * @param board The 2D array representing the Tic-Tac-Toe board.
+     * @return The mask of the occupied cells.
+     */
+    public static int occupiedMask(String[][] board) {
+        int mask = 0;
+        for (int i = 0; i < SIZE; i++) {
+            for (int j = 0; j < SIZE; j++) {
+                if (board[i][j] != null) {
+                    mask |= bit(i, j);
+                }
+            }
+        }
+        return mask;
+    }
+}
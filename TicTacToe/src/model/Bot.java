@@ -0,0 +1,48 @@
+/**
+ * The Bot interface represents a player that can play without the graphical interface, so that the
+ * {@link SelfPlaySimulator} can pit any two of them against each other: given a game in progress, a bot chooses the
+ * move of the side to move. Hal and Mr. Bean are available through {@link #hal(Difficulty)} and {@link #mrBean()};
+ * a new bot only has to implement {@link #chooseMove(GameEngine)}.
+ * A bot is used by one thread at a time, but every thread of a simulation gets bots of its own.
+ */
+package model;
+
+public interface Bot {
+
+    /**
+     * Chooses the move of the side to move. The bot must not play it: the caller plays it on the engine.
+     *
+     * @param game The game in progress. Its side to move is the side the bot plays.
+     * @return A legal move.
+     */
+    Move chooseMove(GameEngine game);
+
+    /**
+     * Creates a bot that plays like Hal, with a new {@link AiPlayer} for every move as {@link GameModel} does.
+     *
+     * @param difficulty The difficulty tier of Hal.
+     * @return The bot.
+     */
+    static Bot hal(Difficulty difficulty) {
+        return game -> {
+            int side = game.getMover();
+            AiPlayer ai = new AiPlayer(GameEngine.getSymbol(side), game.getWinLength());
+            ai.setDifficulty(difficulty);
+            ai.findBestMove(game.getBoard(), GameEngine.getSymbol(1 - side));
+            return new Move(ai.getBestRow(), ai.getBestCol());
+        };
+    }
+
+    /**
+     * Creates a bot that plays like Mr. Bean, on a random empty cell.
+     *
+     * @return The bot.
+     */
+    static Bot mrBean() {
+        RandomPlayer player = new RandomPlayer();
+        return game -> {
+            player.playRandomMove(game.getBoard());
+            return new Move(player.getRow(), player.getColumn());
+        };
+    }
+}
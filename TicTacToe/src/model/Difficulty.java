@@ -0,0 +1,60 @@
+/**
+ * The Difficulty enum lists the strength settings of Hal. Each tier caps how many plies Hal searches
+ * before falling back on the heuristic {@link MnkBoard#evaluate()}, and how long a single move may take,
+ * so the CPU spent per move stays bounded and predictable. From {@link #MEDIUM} to {@link #HARD}, Hal first looks
+ * for a forced win with the {@link ThreatSpaceSearch}, which sees much deeper than the depth limit on large boards.
+ * Only {@link #PERFECT} searches to the end of the game, which is what Hal did before tiers existed,
+ * and only it answers the classic board from the {@link PerfectPlayTable}.
+ */
+package model;
+
+public enum Difficulty {
+
+    EASY(2, 100, false),
+    MEDIUM(4, 500, true),
+    HARD(8, 2000, true),
+    PERFECT(Difficulty.UNLIMITED, 0, false);
+
+    /**
+     * The depth limit of a search that is never cut off.
+     */
+    public static final int UNLIMITED = Integer.MAX_VALUE;
+
+    private final int depthLimit;
+    private final long timeLimitMillis;
+    private final boolean threatSpaceSearch;
+
+    private Difficulty(int depthLimit, long timeLimitMillis, boolean threatSpaceSearch) {
+        this.depthLimit = depthLimit;
+        this.timeLimitMillis = timeLimitMillis;
+        this.threatSpaceSearch = threatSpaceSearch;
+    }
+
+    /**
+     * Gets the number of plies searched before positions are scored heuristically.
+     *
+     * @return The depth limit, or {@link #UNLIMITED}.
+     */
+    public int getDepthLimit() {
+        return depthLimit;
+    }
+
+    /**
+     * Gets the longest time a move may take.
+     *
+     * @return The time limit in milliseconds, or 0 for no limit.
+     */
+    public long getTimeLimitMillis() {
+        return timeLimitMillis;
+    }
+
+    /**
+     * Checks whether forced wins are looked for with the {@link ThreatSpaceSearch} before the normal search.
+     * {@link #PERFECT} does without it: its search to the end of the game finds every win, and the fastest one.
+     *
+     * @return {@code true} if the threat-space search is used.
+     */
+    public boolean usesThreatSpaceSearch() {
+        return threatSpaceSearch;
+    }
+}
@@ -0,0 +1,416 @@
+/**
+ * The EndgameTablebase class holds the perfect-play result of every position of an m,n,k-game
+ * with at most a given number of empty cells, so that the search stops as soon as it reaches one of them.
+ * The table is built by retrograde analysis: positions with no empty cell are scored first, and every layer
+ * with one more empty cell is scored from the layer below it, since each move fills exactly one cell.
+ * Each position takes one byte, its result (win, loss or draw for the side to move) and the number of plies
+ * until the game ends with best play, and is found by a combinatorial index: the rank of its set of empty cells,
+ * then the rank of the mover's stones among the occupied cells. Only positions holding X and O stones,
+ * with X having moved first, are indexed, on boards of at most 62 cells.
+ * The table is written to a file that is memory-mapped when it is loaded.
+ */
+package model;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class EndgameTablebase {
+
+    /**
+     * The score returned by {@link #probe(MnkBoard, int)} for a position the table does not cover.
+     */
+    public static final int UNKNOWN = Integer.MIN_VALUE;
+
+    private static final int MAGIC = 0x54544542; // "TTEB"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 24;
+    private static final int MAX_CELLS = 62;
+
+    private static final int DRAW = 0;
+    private static final int WIN = 1;
+    private static final int LOSS = 2;
+    private static final int INVALID = 3;
+
+    private static final long[][] BINOMIAL = new long[MAX_CELLS + 1][MAX_CELLS + 1];
+    private static final Map<String, Optional<EndgameTablebase>> DEFAULTS = new ConcurrentHashMap<>();
+
+    static {
+        for (int n = 0; n <= MAX_CELLS; n++) {
+            BINOMIAL[n][0] = 1;
+            for (int k = 1; k <= n; k++) {
+                BINOMIAL[n][k] = BINOMIAL[n - 1][k - 1] + BINOMIAL[n - 1][k];
+            }
+        }
+    }
+
+    private final int width;
+    private final int height;
+    private final int winLength;
+    private final int limit;
+    private final ByteBuffer values;
+    private final long[] layerOffsets;
+
+    private EndgameTablebase(int width, int height, int winLength, int limit, ByteBuffer values) {
+        this.width = width;
+        this.height = height;
+        this.winLength = winLength;
+        this.limit = limit;
+        this.values = values;
+        this.layerOffsets = layerOffsets(width * height, limit);
+    }
+
+    /**
+     * Maps a tablebase file into memory.
+     *
+     * @param file The path of the tablebase file.
+     * @return The tablebase.
+     * @throws IOException if the file cannot be read or is not a tablebase.
+     */
+    public static EndgameTablebase load(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE) {
+                throw new IOException("Not a tablebase: " + file);
+            }
+
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            int width = buffer.getInt(8);
+            int height = buffer.getInt(12);
+            int winLength = buffer.getInt(16);
+            int limit = buffer.getInt(20);
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION || width < 1 || height < 1
+                    || width * height > MAX_CELLS || limit < 0 || limit > width * height
+                    || size != HEADER_SIZE + layerOffsets(width * height, limit)[limit + 1]) {
+                throw new IOException("Not a tablebase: " + file);
+            }
+
+            // The mapping stays valid after the channel is closed.
+            buffer.position(HEADER_SIZE);
+            return new EndgameTablebase(width, height, winLength, limit, buffer.slice());
+        }
+    }
+
+    /**
+     * Gets the tablebase of a board stored in the working directory under {@link #fileName(int, int, int)},
+     * mapping it on first use.
+     *
+     * @param width     The number of columns of the board.
+     * @param height    The number of rows of the board.
+     * @param winLength The number of stones in a row needed to win.
+     * @return The tablebase, or null if there is none for this board.
+     */
+    public static EndgameTablebase getDefault(int width, int height, int winLength) {
+        String name = fileName(width, height, winLength);
+        return DEFAULTS.computeIfAbsent(name, key -> {
+            Path file = Paths.get(key);
+            if (!Files.exists(file)) {
+                return Optional.empty();
+            }
+
+            try {
+                return Optional.of(load(file));
+            } catch (IOException e) {
+                System.out.println("Tablebase not loaded: " + e.getMessage());
+                return Optional.empty();
+            }
+        }).orElse(null);
+    }
+
+    /**
+     * Gets the name of the file the game looks for to find the tablebase of a board.
+     *
+     * @param width     The number of columns of the board.
+     * @param height    The number of rows of the board.
+     * @param winLength The number of stones in a row needed to win.
+     * @return The file name, such as {@code tablebase-4x4x4.bin}.
+     */
+    public static String fileName(int width, int height, int winLength) {
+        return "tablebase-" + width + "x" + height + "x" + winLength + ".bin";
+    }
+
+    /**
+     * Looks up the score of a position for the side to move.
+     * Like the scores of {@link MnkSearch}, a win played on the move at ply p scores {@code WIN_SCORE - p}.
+     *
+     * @param board The position.
+     * @param ply   The distance of the position from the root of the search.
+     * @return The score of the position, or {@link #UNKNOWN} if the table does not cover it.
+     */
+    public int probe(MnkBoard board, int ply) {
+        int empties = board.getEmptyCount();
+        if (empties > limit || board.getWidth() != width || board.getHeight() != height
+                || board.getWinLength() != winLength) {
+            return UNKNOWN;
+        }
+
+        int cells = width * height;
+        int mover = board.getSideToMove();
+        long empty = 0;
+        long moverStones = 0;
+        int moverCount = 0;
+
+        for (int cell = 0; cell < cells; cell++) {
+            if (board.isEmpty(cell)) {
+                empty |= 1L << cell;
+            } else {
+                int side = board.getSide(cell);
+                if (side == MnkBoard.NONE) {
+                    return UNKNOWN; // A foreign symbol.
+                }
+                if (side == mover) {
+                    moverStones |= 1L << cell;
+                    moverCount++;
+                }
+            }
+        }
+
+        if (moverCount != (cells - empties) / 2) {
+            return UNKNOWN; // Not a position of a game X started.
+        }
+
+        int value = values.get((int) (layerOffsets[empties] + index(empty, moverStones, cells))) & 0xFF;
+        int result = value >>> 6;
+        int distance = value & 0x3F;
+
+        if (result == INVALID) {
+            return UNKNOWN;
+        }
+        if (result == DRAW) {
+            return 0;
+        }
+
+        // The last move of the game is played on ply + distance - 1.
+        int score = MnkSearch.WIN_SCORE - (ply + distance - 1);
+        return result == WIN ? score : -score;
+    }
+
+    /**
+     * Builds the tablebase of a board by retrograde analysis and writes it to a file.
+     *
+     * @param width     The number of columns of the board.
+     * @param height    The number of rows of the board.
+     * @param winLength The number of stones in a row needed to win.
+     * @param limit     The largest number of empty cells of the positions in the table.
+     * @param file      The path of the tablebase file.
+     * @throws IOException if the file cannot be written.
+     */
+    public static void generate(int width, int height, int winLength, int limit, Path file) throws IOException {
+        int cells = width * height;
+        if (cells > MAX_CELLS || limit < 0 || limit > cells) {
+            throw new IllegalArgumentException("No tablebase for " + width + "x" + height + " up to " + limit);
+        }
+
+        long[] offsets = layerOffsets(cells, limit);
+        if (offsets[limit + 1] > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Tablebase too large: " + offsets[limit + 1] + " positions");
+        }
+
+        long[] lines = lineMasks(new MnkBoard(width, height, winLength));
+        byte[][] layers = new byte[limit + 1][];
+        for (int empties = 0; empties <= limit; empties++) {
+            layers[empties] = solveLayer(cells, empties, lines, empties == 0 ? null : layers[empties - 1]);
+        }
+
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            output.writeInt(MAGIC);
+            output.writeInt(VERSION);
+            output.writeInt(width);
+            output.writeInt(height);
+            output.writeInt(winLength);
+            output.writeInt(limit);
+            for (byte[] layer : layers) {
+                output.write(layer);
+            }
+        }
+    }
+
+    /**
+     * Scores every position with a given number of empty cells from the scores of the layer below.
+     * Positions are visited in the order of their index: sets of empty cells in colexicographic order,
+     * which is the increasing order of their masks, and for each of them the mover's stones in the same order.
+     */
+    private static byte[] solveLayer(int cells, int empties, long[] lines, byte[] below) {
+        int stones = cells - empties;
+        int moverCount = stones / 2;
+        byte[] layer = new byte[(int) (BINOMIAL[cells][empties] * BINOMIAL[stones][moverCount])];
+        int index = 0;
+
+        for (long empty = firstSubset(empties); empty < 1L << cells; empty = nextSubset(empty)) {
+            int[] occupied = new int[stones];
+            for (int cell = 0, i = 0; cell < cells; cell++) {
+                if ((empty & 1L << cell) == 0) {
+                    occupied[i++] = cell;
+                }
+            }
+
+            for (long pick = firstSubset(moverCount); pick < 1L << stones; pick = nextSubset(pick)) {
+                long mover = 0;
+                for (int i = 0; i < stones; i++) {
+                    if ((pick & 1L << i) != 0) {
+                        mover |= 1L << occupied[i];
+                    }
+                }
+                long other = ~(empty | mover) & ((1L << cells) - 1);
+                layer[index++] = (byte) solve(empty, mover, other, cells, lines, below);
+
+                if (moverCount == 0) {
+                    break;
+                }
+            }
+
+            if (empties == 0) {
+                break;
+            }
+        }
+        return layer;
+    }
+
+    private static int solve(long empty, long mover, long other, int cells, long[] lines, byte[] below) {
+        boolean moverWon = hasLine(mover, lines);
+        boolean otherWon = hasLine(other, lines);
+
+        if (moverWon && otherWon) {
+            return INVALID << 6;
+        }
+        if (otherWon) {
+            return LOSS << 6;
+        }
+        if (moverWon) {
+            return WIN << 6;
+        }
+        if (empty == 0) {
+            return DRAW << 6;
+        }
+
+        int fastestWin = Integer.MAX_VALUE;
+        int slowestLoss = -1;
+        boolean draw = false;
+
+        for (long free = empty; free != 0; free &= free - 1) {
+            long move = free & -free;
+            int child = below[(int) index(empty & ~move, other, cells)] & 0xFF;
+            int result = child >>> 6;
+            int distance = child & 0x3F;
+
+            // The child is scored for the other side.
+            if (result == LOSS) {
+                fastestWin = Math.min(fastestWin, distance);
+            } else if (result == DRAW) {
+                draw = true;
+            } else {
+                slowestLoss = Math.max(slowestLoss, distance);
+            }
+        }
+
+        if (fastestWin != Integer.MAX_VALUE) {
+            return WIN << 6 | (fastestWin + 1);
+        }
+        if (draw) {
+            return DRAW << 6;
+        }
+        return LOSS << 6 | (slowestLoss + 1);
+    }
+
+    /**
+     * Computes the index of a position within its layer.
+     *
+     * @param empty The empty cells.
+     * @param mover The stones of the side to move.
+     * @param cells The number of cells of the board.
+     * @return The rank of the empty cells times the number of ways to split the stones,
+     *         plus the rank of the mover's stones among the occupied cells.
+     */
+    private static long index(long empty, long mover, int cells) {
+        long emptyRank = 0;
+        long moverRank = 0;
+        int emptySeen = 0;
+        int stonesSeen = 0;
+        int moverSeen = 0;
+
+        for (int cell = 0; cell < cells; cell++) {
+            if ((empty & 1L << cell) != 0) {
+                emptyRank += BINOMIAL[cell][++emptySeen];
+            } else {
+                if ((mover & 1L << cell) != 0) {
+                    moverRank += BINOMIAL[stonesSeen][++moverSeen];
+                }
+                stonesSeen++;
+            }
+        }
+
+        return emptyRank * BINOMIAL[stonesSeen][stonesSeen / 2] + moverRank;
+    }
+
+    private static long[] layerOffsets(int cells, int limit) {
+        long[] offsets = new long[limit + 2];
+        for (int empties = 0; empties <= limit; empties++) {
+            int stones = cells - empties;
+            offsets[empties + 1] = offsets[empties] + BINOMIAL[cells][empties] * BINOMIAL[stones][stones / 2];
+        }
+        return offsets;
+    }
+
+    private static long[] lineMasks(MnkBoard board) {
+        int[][] lines = board.getLines();
+        long[] masks = new long[lines.length];
+        for (int i = 0; i < lines.length; i++) {
+            for (int cell : lines[i]) {
+                masks[i] |= 1L << cell;
+            }
+        }
+        return masks;
+    }
+
+    private static boolean hasLine(long stones, long[] lines) {
+        for (long line : lines) {
+            if ((stones & line) == line) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long firstSubset(int size) {
+        return (1L << size) - 1;
+    }
+
+    /**
+     * Gets the next larger mask with the same number of set bits (Gosper's hack).
+     */
+    private static long nextSubset(long subset) {
+        long lowest = subset & -subset;
+        long ripple = subset + lowest;
+        return (((ripple ^ subset) >>> 2) / lowest) | ripple;
+    }
+
+    /**
+     * Gets the largest number of empty cells of the positions in the table.
+     *
+     * @return The empty-cell limit.
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getWinLength() {
+        return winLength;
+    }
+}
@@ -0,0 +1,228 @@
+/**
+ * The GameEngine class holds the rules and the state of one game on an m,n,k board: whose turn it is, which cells
+ * are marked, and whether the game is won or drawn. It has no references to AWT or Swing, so games can be played
+ * at full speed on a server or in a test; the Swing interface is one of its clients, through {@link GameModel}.
+ * X is side 0 and always moves first unless {@link #setMover(int)} says otherwise.
+ * The position is kept on an {@link MnkBoard} as well, whose stone counter per side and per line finds a win the
+ * moment a move completes a line, and whose empty cell count finds a draw, so the cost of a move does not grow with
+ * the size of the board. Its {@link Zobrist} hash is the position key of the game.
+ * It is not thread-safe; a search should work on {@link #getBoard()}, which is a copy.
+ */
+package model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class GameEngine {
+
+    public static final String SYMBOL_X = "X";
+    public static final String SYMBOL_O = "O";
+
+    private MnkBoard position;
+    private String[][] board;
+    private GameStatus status;
+    private List<Move> winnerLine;
+
+    /**
+     * Constructor for the GameEngine class, for a game of Tic-Tac-Toe.
+     */
+    public GameEngine() {
+        this(3, 3, 3);
+    }
+
+    /**
+     * Constructor for the GameEngine class. A new game is started at once.
+     *
+     * @param rows      The number of rows of the board.
+     * @param columns   The number of columns of the board.
+     * @param winLength The number of equal symbols in a row needed to win.
+     */
+    public GameEngine(int rows, int columns, int winLength) {
+        newGame(rows, columns, winLength);
+    }
+
+    /**
+     * Starts a new game on a board of the same size, with X to move.
+     */
+    public void newGame() {
+        newGame(getRows(), getColumns(), getWinLength());
+    }
+
+    /**
+     * Starts a new game on an empty board, with X to move.
+     *
+     * @param rows      The number of rows of the board.
+     * @param columns   The number of columns of the board.
+     * @param winLength The number of equal symbols in a row needed to win, at most the size of the board.
+     * @throws IllegalArgumentException If no game can be played on such a board.
+     */
+    public void newGame(int rows, int columns, int winLength) {
+        this.position = new MnkBoard(columns, rows, winLength);
+        this.board = new String[rows][columns];
+        this.status = GameStatus.IN_PROGRESS;
+        this.winnerLine = Collections.emptyList();
+    }
+
+    /**
+     * Checks if a move can be played: the game is in progress and the cell is on the board and empty.
+     *
+     * @param move The move to check.
+     * @return {@code true} if {@link #play(Move)} would accept the move.
+     */
+    public boolean isLegal(Move move) {
+        return status == GameStatus.IN_PROGRESS && isOnBoard(move.getRow(), move.getCol())
+                && board[move.getRow()][move.getCol()] == null;
+    }
+
+    /**
+     * Plays a move for the side to move. If the move ends the game the side to move stays the same;
+     * otherwise the turn passes to the other side.
+     * Only the lines through the cell are updated, so the cost does not depend on the size of the board.
+     *
+     * @param move The cell to mark.
+     * @return The status of the game after the move.
+     * @throws IllegalStateException    If the game is already over.
+     * @throws IllegalArgumentException If the cell is off the board or already marked.
+     */
+    public GameStatus play(Move move) {
+        if (status.isOver()) {
+            throw new IllegalStateException("The game is over: " + status);
+        }
+        int row = move.getRow();
+        int col = move.getCol();
+        if (!isOnBoard(row, col)) {
+            throw new IllegalArgumentException("The move " + move + " is off the board");
+        }
+        if (board[row][col] != null) {
+            throw new IllegalArgumentException("The cell " + move + " is already marked");
+        }
+
+        int mover = position.getSideToMove();
+        board[row][col] = getSymbol(mover);
+        position.play(position.cell(row, col));
+
+        if (position.getWinner() != MnkBoard.NONE) {
+            winnerLine = toMoves(position.getWinningLine());
+            status = (mover == 0) ? GameStatus.X_WINS : GameStatus.O_WINS;
+        } else if (position.isFull()) {
+            status = GameStatus.DRAW;
+        }
+
+        if (status.isOver()) {
+            position.pass(); // The turn stays with the side that ended the game.
+        }
+        return status;
+    }
+
+    private List<Move> toMoves(int[] cells) {
+        int width = position.getWidth();
+        List<Move> moves = new ArrayList<>(cells.length);
+        for (int cell : cells) {
+            moves.add(new Move(cell / width, cell % width));
+        }
+        return Collections.unmodifiableList(moves);
+    }
+
+    private boolean isOnBoard(int row, int col) {
+        return row >= 0 && row < getRows() && col >= 0 && col < getColumns();
+    }
+
+    /**
+     * Gets the state of the game.
+     *
+     * @return Whether the game is in progress, won by one side or drawn.
+     */
+    public GameStatus status() {
+        return status;
+    }
+
+    /**
+     * Gets the line that won the game.
+     *
+     * @return The {@code winLength} cells of the line in order, or an empty list if the game is not won.
+     */
+    public List<Move> winnerLine() {
+        return winnerLine;
+    }
+
+    /**
+     * Gets the side to move. After the last move of a game it is the side that played it.
+     *
+     * @return 0 for X, 1 for O.
+     */
+    public int getMover() {
+        return position.getSideToMove();
+    }
+
+    /**
+     * Sets the side to move, for a game that does not start with X.
+     *
+     * @param mover 0 for X, 1 for O.
+     */
+    public void setMover(int mover) {
+        if (mover != position.getSideToMove()) {
+            position.pass();
+        }
+    }
+
+    /**
+     * Gets the symbol a side plays with.
+     *
+     * @param side 0 for X, 1 for O.
+     * @return {@link #SYMBOL_X} or {@link #SYMBOL_O}.
+     */
+    public static String getSymbol(int side) {
+        return (side == 0) ? SYMBOL_X : SYMBOL_O;
+    }
+
+    /**
+     * Gets the symbol in a cell.
+     *
+     * @param row The row index of the cell (starting from 0).
+     * @param col The column index of the cell (starting from 0).
+     * @return The symbol, or null if the cell is empty.
+     */
+    public String getSymbol(int row, int col) {
+        return board[row][col];
+    }
+
+    /**
+     * Makes a copy of the board, in the form the players and searches of this package take.
+     *
+     * @return A new array of the symbols, with null for empty cells.
+     */
+    public String[][] getBoard() {
+        String[][] copy = new String[board.length][];
+        for (int row = 0; row < board.length; row++) {
+            copy[row] = board[row].clone();
+        }
+        return copy;
+    }
+
+    /**
+     * Gets the Zobrist hash of the position. It equals the hash of
+     * {@code MnkBoard.fromStrings(getBoard(), winLength, "X", "O")} with {@link #getMover()} to move.
+     *
+     * @return The 64-bit position key.
+     */
+    public long getPositionKey() {
+        return position.getHash();
+    }
+
+    public int getMoveCount() {
+        return position.getMoveCount();
+    }
+
+    public int getRows() {
+        return position.getHeight();
+    }
+
+    public int getColumns() {
+        return position.getWidth();
+    }
+
+    public int getWinLength() {
+        return position.getWinLength();
+    }
+}
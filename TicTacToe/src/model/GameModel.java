@@ -1,29 +1,44 @@
 /**
  * The GameModel class represents the game logic and state for the Tic-Tac-Toe game.
- * It manages the moves of players, checks for win conditions, handles AI moves, and updates player scores.
+ * It manages the moves of players, handles AI moves, and updates player scores.
+ * The rules and the state of the game are kept by a {@link GameEngine}; this class is the client that connects it to
+ * the Swing interface, marking the winning line and counting wins and ties once the engine says the game is over.
  */
 package model;
 
 
-import java.awt.Color;
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javax.swing.SwingUtilities;
 
 import controller.GameController;
 
 public class GameModel {
 
 	private GameController gc;
-    private int mover;
+    private final GameEngine engine;
     private boolean inGame;
     private RandomPlayer mrBean;
     private String rightPlayerName;
     private String leftPlayerName;
-    private Timer timer;
+    private final MoveScheduler moveScheduler;
+    private Difficulty difficulty = Difficulty.PERFECT;
+    private final ExecutorService searchExecutor;
+    private AiPlayer activeAi;
+    private AiPlayer ponderingAi;
+    private AiPlayer analyzingAi;
+    private CompletableFuture<Move> pendingSearch;
+    private int searchGeneration;
+    private SearchStats lastSearchStats = SearchStats.NONE;
+    private SearchStats totalSearchStats = SearchStats.NONE;
     
     private static final int MOVE_DELAY = 1000; // 1 second delay for AI moves
-    private static final String SYMBOL_X = "X";
-    private static final String SYMBOL_O = "O";
+    private static final String SYMBOL_X = GameEngine.SYMBOL_X;
+    private static final String SYMBOL_O = GameEngine.SYMBOL_O;
 
     /**
      * Constructor for the GameModel class.
@@ -35,46 +50,274 @@ public class GameModel {
         this.gc = gc;
         this.inGame = false;
         this.mrBean = new RandomPlayer();
+        this.engine = new GameEngine();
+        this.moveScheduler = new MoveScheduler(gc.getScheduler(), SwingUtilities::invokeLater);
+        this.searchExecutor = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "Hal-search");
+            thread.setDaemon(true);
+            return thread;
+        });
     }
 
     /**
-     * Checks if the given row and column indices are valid on the Tic-Tac-Toe board.
+     * Checks if the given row and column indices are valid on the game board.
      *
-     * @param row The row index to check.
-     * @param column The column index to check.
+     * @param row The row index to check (starting from 1).
+     * @param column The column index to check (starting from 1).
      * @return true if the row and column indices are valid, false otherwise.
      */
     public boolean checkValidInput(int row, int column) {
-        return row >= 1 && row <= 3 && column >= 1 && column <= 3;
+        return row >= 1 && row <= engine.getRows() && column >= 1 && column <= engine.getColumns();
     }
 
     /**
      * Executes an AI move based on the right and left players' names.
      * If the right player's name is "Hal" and it's their turn (mover == 1), AI uses the Minimax algorithm to find the best move.
      * If the left player's name is "Hal" and it's their turn (mover == 0), AI uses the Minimax algorithm to find the best move.
+     * The search runs in the background, so the Event Dispatch Thread is never blocked while Hal thinks.
+     * Hal gets the time limit of its difficulty.
      */
     public void aiMove() {
-    	
+        aiMove(difficulty.getTimeLimitMillis());
+    }
+
+    /**
+     * Executes an AI move like {@link #aiMove()}, with a time budget for Hal's search.
+     *
+     * @param timeBudgetMillis The longest time Hal may search, in milliseconds, or 0 for no limit.
+     */
+    public void aiMove(long timeBudgetMillis) {
         this.rightPlayerName = gc.getMain().getRightPlayer().getPlayer().getName();
         this.leftPlayerName = gc.getMain().getLeftPlayer().getPlayer().getName();
 
-        if (rightPlayerName != null && rightPlayerName.equals("Hal") && mover == 1) {
-            AiPlayer ai = new AiPlayer(SYMBOL_O);
-            ai.findBestMove(gc.getGameBoard().getBoard(), SYMBOL_X);
-            int bestRow = ai.getBestRow();
-            int bestCol = ai.getBestCol();
-            
-            scheduleMove(bestRow, bestCol);
+        if (rightPlayerName != null && rightPlayerName.equals("Hal") && getMover() == 1) {
+            requestAiMove(SYMBOL_O, SYMBOL_X, timeBudgetMillis);
         }
 
-        if (leftPlayerName != null && leftPlayerName.equals("Hal") && mover == 0) {
-            AiPlayer ai = new AiPlayer(SYMBOL_X);
-            ai.findBestMove(gc.getGameBoard().getBoard(), SYMBOL_O);
-            int bestRow = ai.getBestRow();
-            int bestCol = ai.getBestCol();
-            
-            scheduleMove(bestRow, bestCol);
+        if (leftPlayerName != null && leftPlayerName.equals("Hal") && getMover() == 0) {
+            requestAiMove(SYMBOL_X, SYMBOL_O, timeBudgetMillis);
+        }
+    }
+
+    /**
+     * Starts searching Hal's move on the search thread and schedules it on the Event Dispatch Thread once found.
+     * A result that arrives after the search was cancelled, or after the game ended, is dropped.
+     *
+     * @param playerSymbol     The symbol Hal plays with.
+     * @param opponentSymbol   The symbol of Hal's opponent.
+     * @param timeBudgetMillis The longest time Hal may search, in milliseconds, or 0 for no limit.
+     */
+    private void requestAiMove(String playerSymbol, String opponentSymbol, long timeBudgetMillis) {
+        // The answers Hal pondered while its opponent was thinking are handed over before pondering stops.
+        AiPlayer ponderer = ponderingAi;
+        ponderingAi = null;
+        cancelAiMove();
+        int generation = searchGeneration;
+
+        pendingSearch = findAiMove(playerSymbol, opponentSymbol, timeBudgetMillis, ponderer);
+        pendingSearch.whenCompleteAsync((move, error) -> deliverAiMove(generation, move, error),
+                SwingUtilities::invokeLater);
+    }
+
+    /**
+     * Searches the best move for a symbol on a dedicated search thread, within the time limit of the difficulty.
+     * The search works on a copy of the board taken when this method is called.
+     *
+     * @param playerSymbol   The symbol of the side to move.
+     * @param opponentSymbol The symbol of the other side.
+     * @return A future completed with the best move, or completed exceptionally if the search is cancelled.
+     */
+    public CompletableFuture<Move> findAiMove(String playerSymbol, String opponentSymbol) {
+        return findAiMove(playerSymbol, opponentSymbol, difficulty.getTimeLimitMillis());
+    }
+
+    /**
+     * Searches the best move for a symbol on a dedicated search thread, within a time budget.
+     * The search deepens iteratively, so a move is ready when the budget runs out whatever the size of the board.
+     *
+     * @param playerSymbol     The symbol of the side to move.
+     * @param opponentSymbol   The symbol of the other side.
+     * @param timeBudgetMillis The longest time the search may take, in milliseconds, or 0 for no limit.
+     * @return A future completed with the best move, or completed exceptionally if the search is cancelled.
+     */
+    public CompletableFuture<Move> findAiMove(String playerSymbol, String opponentSymbol, long timeBudgetMillis) {
+        return findAiMove(playerSymbol, opponentSymbol, timeBudgetMillis, null);
+    }
+
+    private CompletableFuture<Move> findAiMove(String playerSymbol, String opponentSymbol, long timeBudgetMillis,
+            AiPlayer ponderer) {
+        String[][] board = engine.getBoard();
+        AiPlayer ai = new AiPlayer(playerSymbol, getWinLength());
+        ai.setDifficulty(difficulty);
+        ai.setTimeLimit(timeBudgetMillis);
+        if (ponderer != null) {
+            ai.usePonderedMoves(ponderer);
+            ponderer.cancel();
+        }
+        activeAi = ai;
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                ai.findBestMove(board, opponentSymbol);
+            } finally {
+                recordSearchStats(ai.getStats(), true);
+            }
+            return new Move(ai.getBestRow(), ai.getBestCol());
+        }, searchExecutor);
+    }
+
+    /**
+     * Scores every legal move of a symbol with its principal variation on the search thread, within the depth and
+     * time limits of the difficulty, for hints and for spotting blunders. The analysis works on a copy of the board
+     * taken when this method is called. It stops Hal's pondering, which would hold the search thread until the
+     * opponent moves, and is cancelled by the next analysis and by {@link #cancelAiMove()}, so it never holds up
+     * Hal's moves.
+     *
+     * @param playerSymbol   The symbol of the side to move.
+     * @param opponentSymbol The symbol of the other side.
+     * @return A future completed with the analysis of every empty cell, best move first.
+     */
+    public CompletableFuture<List<MoveAnalysis>> analyzeMoves(String playerSymbol, String opponentSymbol) {
+        String[][] board = engine.getBoard();
+        AiPlayer ai = new AiPlayer(playerSymbol, getWinLength());
+        ai.setDifficulty(difficulty);
+        cancelPondering();
+        cancelAnalysis();
+        analyzingAi = ai;
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return ai.analyze(board, opponentSymbol);
+            } finally {
+                recordSearchStats(ai.getStats(), false);
+            }
+        }, searchExecutor);
+    }
+
+    /**
+     * Lets Hal ponder while its opponent, a human or Mr. Bean, is to move.
+     * Hal searches its answers to the likely replies on the search thread, until its own move is requested;
+     * only the search of that move may use them. They are dropped when the game is reset or the difficulty changes.
+     */
+    private void ponderAiMove() {
+        boolean rightIsHal = rightPlayerName != null && rightPlayerName.equals("Hal");
+        boolean leftIsHal = leftPlayerName != null && leftPlayerName.equals("Hal");
+
+        if (rightIsHal && !leftIsHal && getMover() == 0) {
+            startPondering(SYMBOL_O, SYMBOL_X);
+        }
+
+        if (leftIsHal && !rightIsHal && getMover() == 1) {
+            startPondering(SYMBOL_X, SYMBOL_O);
+        }
+    }
+
+    private void startPondering(String playerSymbol, String opponentSymbol) {
+        cancelPondering();
+        String[][] board = engine.getBoard();
+        AiPlayer ai = new AiPlayer(playerSymbol, getWinLength());
+        ai.setDifficulty(difficulty);
+        ponderingAi = ai;
+
+        searchExecutor.execute(() -> {
+            try {
+                ai.ponder(board, opponentSymbol);
+            } catch (CancellationException e) {
+                // The opponent moved before every reply was searched.
+            } finally {
+                recordSearchStats(ai.getStats(), false);
+            }
+        });
+    }
+
+    private void cancelPondering() {
+        if (ponderingAi != null) {
+            ponderingAi.cancel();
+            ponderingAi = null;
+        }
+    }
+
+    private void cancelAnalysis() {
+        if (analyzingAi != null) {
+            analyzingAi.cancel();
+            analyzingAi = null;
+        }
+    }
+
+    /**
+     * Adds the statistics of a search to the running totals, and keeps them as the last ones if it searched a move.
+     */
+    private synchronized void recordSearchStats(SearchStats stats, boolean move) {
+        if (move) {
+            lastSearchStats = stats;
+        }
+        totalSearchStats = totalSearchStats.plus(stats);
+    }
+
+    /**
+     * Gets the statistics of the last search of a move by Hal, even one that was cancelled.
+     *
+     * @return The nodes, depth, time, cutoffs and cache hits of the last move search.
+     */
+    public synchronized SearchStats getLastSearchStats() {
+        return lastSearchStats;
+    }
+
+    /**
+     * Gets the statistics of every search run since the model was created or the totals were reset:
+     * move searches, pondering and analyses alike. The depth is the deepest any of them reached.
+     *
+     * @return The running totals.
+     */
+    public synchronized SearchStats getTotalSearchStats() {
+        return totalSearchStats;
+    }
+
+    /**
+     * Resets the running totals of {@link #getTotalSearchStats()} and the last search statistics.
+     */
+    public synchronized void resetSearchStats() {
+        lastSearchStats = SearchStats.NONE;
+        totalSearchStats = SearchStats.NONE;
+    }
+
+    /**
+     * Plays the move Hal found, once it is back on the Event Dispatch Thread.
+     * If the search failed, or gave no legal move, Hal plays a random legal move instead, so that its turn
+     * always ends and the game never stalls.
+     */
+    private void deliverAiMove(int generation, Move move, Throwable error) {
+        if (generation != searchGeneration || !inGame) {
+            return; // The search was cancelled or the game is over.
+        }
+
+        if (error != null || !engine.isLegal(move)) {
+            if (error != null) {
+                error.printStackTrace();
+            }
+            mrBean.playRandomMove(engine.getBoard());
+            move = new Move(mrBean.getRow(), mrBean.getColumn());
+        }
+
+        scheduleMove(move.getRow(), move.getCol());
+    }
+
+    /**
+     * Cancels Hal's move if it is still being searched or waiting to be played, and stops Hal's pondering
+     * and any analysis of the moves.
+     * It must be called on the Event Dispatch Thread.
+     */
+    public void cancelAiMove() {
+        searchGeneration++;
+        cancelPondering();
+        cancelAnalysis();
+        if (activeAi != null) {
+            activeAi.cancel();
+            activeAi = null;
+        }
+        if (pendingSearch != null) {
+            pendingSearch.cancel(false);
+            pendingSearch = null;
         }
+        moveScheduler.cancel();
     }
 
     /**
@@ -86,16 +329,16 @@ public class GameModel {
         rightPlayerName = gc.getMain().getRightPlayer().getPlayer().getName();
         leftPlayerName = gc.getMain().getLeftPlayer().getPlayer().getName();
 
-        if (rightPlayerName != null && rightPlayerName.equals("Mr.Bean") && mover == 1) {
-            mrBean.playRandomMove(gc.getGameBoard().getBoard());
+        if (rightPlayerName != null && rightPlayerName.equals("Mr.Bean") && getMover() == 1) {
+            mrBean.playRandomMove(engine.getBoard());
             int row = mrBean.getRow();
             int col = mrBean.getColumn();
             
             scheduleMove(row, col);
         }
 
-        if (leftPlayerName != null && leftPlayerName.equals("Mr.Bean") && mover == 0) {
-            mrBean.playRandomMove(gc.getGameBoard().getBoard());
+        if (leftPlayerName != null && leftPlayerName.equals("Mr.Bean") && getMover() == 0) {
+            mrBean.playRandomMove(engine.getBoard());
             int row = mrBean.getRow();
             int col = mrBean.getColumn();
             
@@ -106,70 +349,50 @@ public class GameModel {
     /**
     * Schedules a move to be executed after a specified delay.
     * <p>
-    * This method first cancels any existing timer task to ensure that only one move
-    * is scheduled at a time. It then creates a new `Timer` instance and schedules
-    * a `TimerTask` that will execute the move on the Tic-Tac-Toe board after a delay
-    * defined by the constant {@link #MOVE_DELAY}.
+    * This method first cancels any move still waiting to ensure that only one move
+    * is scheduled at a time. It then schedules the move on the Tic-Tac-Toe board after a delay
+    * defined by the constant {@link #MOVE_DELAY}, through the {@link MoveScheduler} of this game, on the scheduler
+    * the controller shares between all games, so no thread is created per move. The cell is chosen on the Event Dispatch Thread,
+    * unless {@link #cancelAiMove()} was called in the meantime.
     *
     * @param row The row index of the cell where the move will be executed.
     * @param col The column index of the cell where the move will be executed.
     */
     private void scheduleMove(int row, int col) {
-        if (timer != null) {
-            timer.cancel();
-        }
+        moveScheduler.schedule(() -> gc.getGameBoard().getCells()[row][col].chooseCell(), MOVE_DELAY);
+    }
 
-        timer = new Timer();
-        timer.schedule(new TimerTask() {
-            @Override
-            public void run() {
-                gc.getGameBoard().getCells()[row][col].chooseCell();
-            }
-        }, MOVE_DELAY);
+    /**
+     * Plays a move for the current mover on the engine, and copies it to the board the view keeps.
+     * If the game goes on, the turn passes to the other side.
+     *
+     * @param row The row index of the cell (starting from 0).
+     * @param col The column index of the cell (starting from 0).
+     * @throws IllegalArgumentException If the cell is off the board or already marked.
+     * @throws IllegalStateException    If the game is already over.
+     */
+    public void playMove(int row, int col) {
+        engine.play(new Move(row, col));
+        gc.getGameBoard().getBoard()[row][col] = engine.getSymbol(row, col);
     }
 
     /**
-     * Checks for a winning move on the Tic-Tac-Toe board.
-     * If a winning move is found, it handles the game end and updates player scores accordingly.
+     * Checks whether the last move ended the game.
+     * If it won the game, the winning line is marked and the players' scores are updated accordingly.
      */
     public boolean checkWinner() {
         if (!inGame) {
             return true; // The game is over.
         }
-        
-        String[][] board = gc.getGameBoard().getBoard();
-
-        // Check rows
-        for (int i = 0; i < 3; i++) {
-            if (isWinningMove(board[i][0], board[i][1], board[i][2])) {
-                markWinningCellsInRow(i);
-                handleWinningMove(board[i][0]);
-                return true; // Return true if a win is found
-            }
-        }
 
-        // Check columns
-        for (int j = 0; j < 3; j++) {
-            if (isWinningMove(board[0][j], board[1][j], board[2][j])) {
-                markWinningCellsInColumn(j);
-                handleWinningMove(board[0][j]);
-                return true; // Return true if a win is found
-            }
-        }
-
-        // Check diagonals
-        if (isWinningMove(board[0][0], board[1][1], board[2][2])) {
-            markWinningCellsInDiagonal(true);
-            handleWinningMove(board[0][0]);
-            return true; // Return true if a win is found
-        } else if (isWinningMove(board[0][2], board[1][1], board[2][0])) {
-            markWinningCellsInDiagonal(false);
-            handleWinningMove(board[0][2]);
-            return true; // Return true if a win is found
+        GameStatus status = engine.status();
+        if (status == GameStatus.X_WINS || status == GameStatus.O_WINS) {
+            gc.getGameBoard().markWinningLine(engine.winnerLine());
+            handleWinningMove(status == GameStatus.X_WINS ? SYMBOL_X : SYMBOL_O);
+            return true;
         }
 
-        // Check for a tie (if no win has been found)
-        if (isFull()) {
+        if (status == GameStatus.DRAW) {
             handleTie();
             return true;
         }
@@ -178,31 +401,6 @@ public class GameModel {
         return false;
     }
 
-
-    private void markWinningCellsInRow(int row) {
-        for (int j = 0; j < 3; j++) {
-            gc.getGameBoard().getCells()[row][j].setBackground(Color.RED);
-        }
-    }
-
-    private void markWinningCellsInColumn(int col) {
-        for (int i = 0; i < 3; i++) {
-            gc.getGameBoard().getCells()[i][col].setBackground(Color.RED);
-        }
-    }
-
-    private void markWinningCellsInDiagonal(boolean isMainDiagonal) {
-        for (int i = 0; i < 3; i++) {
-            int j = isMainDiagonal ? i : 2 - i;
-            gc.getGameBoard().getCells()[i][j].setBackground(Color.RED);
-        }
-    }
-
-
-    private boolean isWinningMove(String symbol1, String symbol2, String symbol3) {
-        return symbol1 != null && symbol1.equals(symbol2) && symbol1.equals(symbol3);
-    }
-
     private void handleWinningMove(String winBoardSymbol) {
         Player leftPlayer;
         Player rightPlayer;
@@ -242,48 +440,36 @@ public class GameModel {
     }
 
     /**
-     * Checks if the Tic-Tac-Toe board is full (all cells are chosen).
+     * Checks if the game board is full (all cells are chosen).
      *
      * @return true if the board is full, false otherwise.
      */
     public boolean isFull() {
-        String[][] board = gc.getGameBoard().getBoard();
-        for (int i = 0; i < 3; i++) {
-            for (int j = 0; j < 3; j++) {
-                if (board[i][j] == null) {
-                    return false; // If any cell is null, the board is not full
-                }
-            }
-        }
-        return true; // All cells are non-null, indicating a full board
+        return engine.getMoveCount() == engine.getRows() * engine.getColumns();
     }
 
 
     /**
-     * Changes the current mover (player turn) and schedules AI moves with a delay.
+     * Hands the turn to the next player after a move, and schedules AI moves with a delay.
+     * The engine has already passed the turn when the move was played.
      */
     public void changeMover() {
         if (inGame) {
-            mover = (mover == 0) ? 1 : 0;
             aiMove();
             mrBeanMove();
+            ponderAiMove();
         }
     }
 
 
     /**
-     * Resets the Tic-Tac-Toe board and associated variables to start a new game.
+     * Resets the game board and associated variables to start a new game.
+     * Any AI move still being searched is cancelled.
      */
     public void resetBoard() {
-        for (int i = 0; i < 3; i++) {
-            for (int j = 0; j < 3; j++) {
-                gc.getGameBoard().getCells()[i][j].setChosen(false);
-                gc.getGameBoard().getCells()[i][j].setClicked(false);
-                gc.getGameBoard().getCells()[i][j].setHighlighted(false);
-                gc.getGameBoard().getCells()[i][j].setBackground(null);
-                gc.getGameBoard().getBoard()[i][j] = null;
-            }
-        }
+        cancelAiMove();
+        engine.newGame();
+        gc.getGameBoard().clear();
     }
 
     /**
@@ -292,7 +478,7 @@ public class GameModel {
      * @return The current mover (0 for left player, 1 for right player).
      */
     public int getMover() {
-        return mover;
+        return engine.getMover();
     }
 
     /**
@@ -301,9 +487,66 @@ public class GameModel {
      * @param mover The current mover (0 for left player, 1 for right player).
      */
     public void setMover(int mover) {
-        this.mover = mover;
+        engine.setMover(mover);
         mrBeanMove();
         aiMove();
+        ponderAiMove();
+    }
+
+    /**
+     * Gets the Zobrist hash of the live position. It equals the hash of
+     * {@code MnkBoard.fromStrings(board, winLength, "X", "O")} with the current mover to move.
+     *
+     * @return The 64-bit position key.
+     */
+    public long getPositionKey() {
+        return engine.getPositionKey();
+    }
+
+    /**
+     * Gets the engine that keeps the rules and the state of the game.
+     *
+     * @return The game engine.
+     */
+    public GameEngine getEngine() {
+        return engine;
+    }
+
+    /**
+     * Gets the number of equal symbols in a row needed to win.
+     *
+     * @return The win length.
+     */
+    public int getWinLength() {
+        return engine.getWinLength();
+    }
+
+    /**
+     * Sets the number of equal symbols in a row needed to win, and starts a new game on the engine with it.
+     *
+     * @param winLength The win length, at most the size of the board.
+     */
+    public void setWinLength(int winLength) {
+        engine.newGame(engine.getRows(), engine.getColumns(), winLength);
+    }
+
+    /**
+     * Gets how deep and how long Hal searches.
+     *
+     * @return The difficulty tier of Hal.
+     */
+    public Difficulty getDifficulty() {
+        return difficulty;
+    }
+
+    /**
+     * Sets how deep and how long Hal searches, from the next move on.
+     *
+     * @param difficulty The difficulty tier of Hal.
+     */
+    public void setDifficulty(Difficulty difficulty) {
+        cancelPondering(); // Answers pondered at the old difficulty must not be played at the new one.
+        this.difficulty = difficulty;
     }
 
     /**
@@ -0,0 +1,21 @@
+/**
+ * The GameStatus enum represents the state of a game played on a {@link GameEngine}.
+ */
+package model;
+
+public enum GameStatus {
+
+    IN_PROGRESS,
+    X_WINS,
+    O_WINS,
+    DRAW;
+
+    /**
+     * Checks if the game is over, whether won or drawn.
+     *
+     * @return {@code true} if no more moves can be played.
+     */
+    public boolean isOver() {
+        return this != IN_PROGRESS;
+    }
+}
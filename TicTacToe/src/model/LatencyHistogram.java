@@ -0,0 +1,121 @@
+/**
+ * The LatencyHistogram class counts durations in logarithmic buckets, so that percentiles of millions of
+ * measurements can be read without keeping them. Durations below 16 ns are counted exactly; above that, each power
+ * of two is split into eight buckets, so a percentile is never more than an eighth above the true value.
+ * It takes a fixed 4 KB whatever the number of measurements. It is not thread-safe: each thread records into
+ * a histogram of its own, and the histograms are added up at the end.
+ */
+package model;
+
+public final class LatencyHistogram {
+
+    private static final int EXACT_LIMIT = 16;
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = EXACT_LIMIT + (63 - 4) * SUB_BUCKETS;
+
+    private final long[] counts = new long[BUCKETS];
+    private long count;
+    private long max;
+
+    /**
+     * Constructor for the LatencyHistogram class. The histogram starts empty.
+     */
+    public LatencyHistogram() {
+    }
+
+    /**
+     * Copy constructor for the LatencyHistogram class.
+     *
+     * @param other The histogram to copy.
+     */
+    public LatencyHistogram(LatencyHistogram other) {
+        System.arraycopy(other.counts, 0, counts, 0, BUCKETS);
+        this.count = other.count;
+        this.max = other.max;
+    }
+
+    /**
+     * Counts one duration.
+     *
+     * @param nanos The duration in nanoseconds. Negative durations count as 0.
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        counts[bucket(value)]++;
+        count++;
+        max = Math.max(max, value);
+    }
+
+    /**
+     * Adds the durations counted by another histogram to this one.
+     *
+     * @param other The histogram to add.
+     */
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] += other.counts[i];
+        }
+        count += other.count;
+        max = Math.max(max, other.max);
+    }
+
+    /**
+     * Gets the duration that a share of the counted durations do not exceed.
+     *
+     * @param percentile The share in percent, from 0 to 100; 50 is the median.
+     * @return The upper bound of the bucket holding that duration, in nanoseconds, or 0 if nothing was counted.
+     */
+    public long getPercentile(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(upperBound(i), max);
+            }
+        }
+        return max;
+    }
+
+    private static int bucket(long value) {
+        if (value < EXACT_LIMIT) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return EXACT_LIMIT + (exponent - 4) * SUB_BUCKETS + subBucket;
+    }
+
+    private static long upperBound(int bucket) {
+        if (bucket < EXACT_LIMIT) {
+            return bucket;
+        }
+        int exponent = (bucket - EXACT_LIMIT) / SUB_BUCKETS + 4;
+        int subBucket = (bucket - EXACT_LIMIT) % SUB_BUCKETS;
+        long width = 1L << (exponent - SUB_BUCKET_BITS);
+        return (SUB_BUCKETS + subBucket) * width + width - 1;
+    }
+
+    /**
+     * Gets the number of durations counted.
+     *
+     * @return The count.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Gets the longest duration counted.
+     *
+     * @return The longest duration in nanoseconds, or 0 if nothing was counted.
+     */
+    public long getMax() {
+        return max;
+    }
+}
@@ -0,0 +1,280 @@
+/**
+ * The MctsPlayer class represents an AI player that chooses its moves with Monte Carlo Tree Search.
+ * Instead of searching the game tree to the end, it plays many random games (playouts) from the current position
+ * and grows a tree towards the moves that win most often, balancing the two with the UCT formula.
+ * Its strength grows with its budget, which is either a number of playouts or a time limit, so it stays usable
+ * on boards far too large for {@link AiPlayer}. Playouts run on several threads with root parallelization:
+ * each thread grows its own tree and the visit counts of the root moves are added up at the end.
+ */
+package model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+public class MctsPlayer {
+
+    private static final double EXPLORATION = Math.sqrt(2);
+    private static final int DEFAULT_PLAYOUTS = 10000;
+
+    private final String playerSymbol;
+    private final int winLength;
+    private final ForkJoinPool pool;
+    private int playoutBudget;
+    private long timeBudgetMillis;
+    private int threads;
+    private int bestRow;
+    private int bestCol;
+    private long playoutCount;
+
+    /**
+     * Constructor for the MctsPlayer class.
+     * The player starts with a budget of 10000 playouts, no time limit, and one thread per available core.
+     *
+     * @param playerSymbol The symbol of the player (X or O).
+     * @param winLength    The number of symbols in a row needed to win.
+     */
+    public MctsPlayer(String playerSymbol, int winLength) {
+        this(playerSymbol, winLength, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructor for the MctsPlayer class running its playouts on a given pool.
+     *
+     * @param playerSymbol The symbol of the player (X or O).
+     * @param winLength    The number of symbols in a row needed to win.
+     * @param pool         The pool whose threads run the playouts.
+     */
+    public MctsPlayer(String playerSymbol, int winLength, ForkJoinPool pool) {
+        this.playerSymbol = playerSymbol;
+        this.winLength = winLength;
+        this.pool = pool;
+        this.playoutBudget = DEFAULT_PLAYOUTS;
+        this.threads = Math.max(1, pool.getParallelism());
+    }
+
+    /**
+     * Finds the most promising move given the current state of the board.
+     * The search stops when the playout budget is used up or the time budget runs out, whichever comes first.
+     *
+     * @param board          The 2D array representing the board.
+     * @param opponentSymbol The symbol of the opponent player (X or O).
+     */
+    public void findBestMove(String[][] board, String opponentSymbol) {
+        MnkBoard position = MnkBoard.fromStrings(board, winLength, playerSymbol, opponentSymbol);
+        if (position.isFull()) {
+            return;
+        }
+
+        long deadline = timeBudgetMillis > 0 ? System.nanoTime() + timeBudgetMillis * 1_000_000 : Long.MAX_VALUE;
+        List<Future<Node>> trees = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int playouts = playoutBudget / threads + (t < playoutBudget % threads ? 1 : 0);
+            MnkBoard copy = new MnkBoard(position);
+            trees.add(pool.submit(() -> grow(copy, playouts, deadline)));
+        }
+
+        long[] visits = new long[position.getCellCount()];
+        playoutCount = 0;
+        for (Future<Node> tree : trees) {
+            Node root = join(tree);
+            playoutCount += root.visits;
+            for (int i = 0; i < root.childCount; i++) {
+                visits[root.children[i].move] += root.children[i].visits;
+            }
+        }
+
+        int best = -1;
+        for (int cell = 0; cell < visits.length; cell++) {
+            if (position.isEmpty(cell) && (best < 0 || visits[cell] > visits[best])) {
+                best = cell;
+            }
+        }
+
+        bestRow = best / position.getWidth();
+        bestCol = best % position.getWidth();
+    }
+
+    /**
+     * Grows one search tree on the calling thread.
+     *
+     * @param board    The position to search, owned by the calling thread.
+     * @param playouts The number of playouts to run.
+     * @param deadline The {@link System#nanoTime()} value at which to stop.
+     * @return The root of the tree.
+     */
+    private static Node grow(MnkBoard board, int playouts, long deadline) {
+        Random random = ThreadLocalRandom.current();
+        Node root = new Node(null, -1, board);
+        int rootMoves = board.getMoveCount();
+
+        for (int i = 0; i < playouts && System.nanoTime() < deadline; i++) {
+            Node node = root;
+
+            // Selection: follow the best UCT child while the node is fully expanded.
+            while (node.untriedCount == 0 && node.childCount > 0) {
+                node = node.select();
+                board.play(node.move);
+            }
+
+            // Expansion: add one untried move.
+            if (node.untriedCount > 0 && !board.isGameOver()) {
+                int move = node.takeUntried(random);
+                board.play(move);
+                node = node.addChild(move, board);
+            }
+
+            // Playout: finish the game with random moves.
+            while (!board.isGameOver()) {
+                board.play(RandomPlayer.randomEmptyCell(board, random));
+            }
+            int winner = board.getWinner();
+
+            // Backpropagation: score every node for the side that moved into it.
+            for (; node != null; node = node.parent) {
+                node.visits++;
+                if (winner == MnkBoard.NONE) {
+                    node.wins += 0.5;
+                } else if (winner == node.mover) {
+                    node.wins += 1;
+                }
+            }
+
+            while (board.getMoveCount() > rootMoves) {
+                board.undo();
+            }
+        }
+        return root;
+    }
+
+    private static Node join(Future<Node> tree) {
+        try {
+            return tree.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the playouts", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("A playout thread failed", e.getCause());
+        }
+    }
+
+    /**
+     * A node of the search tree: the position reached by playing {@code move}.
+     */
+    private static final class Node {
+
+        private final Node parent;
+        private final int move;
+        private final int mover;
+        private final int[] untried;
+        private final Node[] children;
+        private int untriedCount;
+        private int childCount;
+        private int visits;
+        private double wins;
+
+        private Node(Node parent, int move, MnkBoard board) {
+            this.parent = parent;
+            this.move = move;
+            this.mover = 1 - board.getSideToMove();
+
+            int count = board.isGameOver() ? 0 : board.getEmptyCount();
+            this.untried = new int[count];
+            this.children = new Node[count];
+            for (int cell = 0; cell < board.getCellCount() && untriedCount < count; cell++) {
+                if (board.isEmpty(cell)) {
+                    untried[untriedCount++] = cell;
+                }
+            }
+        }
+
+        private int takeUntried(Random random) {
+            int index = random.nextInt(untriedCount);
+            int move = untried[index];
+            untried[index] = untried[--untriedCount];
+            return move;
+        }
+
+        private Node addChild(int move, MnkBoard board) {
+            Node child = new Node(this, move, board);
+            children[childCount++] = child;
+            return child;
+        }
+
+        private Node select() {
+            double logVisits = Math.log(visits);
+            Node best = null;
+            double bestValue = Double.NEGATIVE_INFINITY;
+
+            for (int i = 0; i < childCount; i++) {
+                Node child = children[i];
+                double value = child.wins / child.visits + EXPLORATION * Math.sqrt(logVisits / child.visits);
+                if (value > bestValue) {
+                    bestValue = value;
+                    best = child;
+                }
+            }
+            return best;
+        }
+    }
+
+    /**
+     * Sets the number of playouts per move, shared among all threads.
+     *
+     * @param playoutBudget The number of playouts.
+     */
+    public void setPlayoutBudget(int playoutBudget) {
+        this.playoutBudget = playoutBudget;
+    }
+
+    public int getPlayoutBudget() {
+        return playoutBudget;
+    }
+
+    /**
+     * Sets the time limit per move.
+     *
+     * @param timeBudgetMillis The time limit in milliseconds, or 0 for no limit.
+     */
+    public void setTimeBudget(long timeBudgetMillis) {
+        this.timeBudgetMillis = timeBudgetMillis;
+    }
+
+    public long getTimeBudget() {
+        return timeBudgetMillis;
+    }
+
+    /**
+     * Sets the number of trees grown in parallel.
+     *
+     * @param threads The number of threads, at least 1.
+     */
+    public void setThreads(int threads) {
+        this.threads = Math.max(1, threads);
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Gets the number of playouts run by the last call to {@link #findBestMove(String[][], String)}.
+     *
+     * @return The playout count of the last search.
+     */
+    public long getPlayoutCount() {
+        return playoutCount;
+    }
+
+    public int getBestRow() {
+        return bestRow;
+    }
+
+    public int getBestCol() {
+        return bestCol;
+    }
+}
@@ -0,0 +1,550 @@
+/**
+ * The MnkBoard class represents the position of an m,n,k-game: a board of any width and height on which
+ * the first player to get k stones in a row (horizontally, vertically or diagonally) wins.
+ * Tic-Tac-Toe is the 3,3,3-game and Gomoku the 15,15,5-game.
+ * The stones of each side are kept in long-array bitsets, and every line of k cells has a stone counter per side,
+ * so a move is played or taken back in time proportional to the number of lines through its cell,
+ * and a win is detected the moment a counter reaches k. A {@link Zobrist} hash of the position is kept up to date
+ * on every move, so the position can be used as a cache key without scanning the board.
+ * The same counters keep a heuristic score of the position up to date, for searches that stop before the end
+ * of the game: see {@link #evaluate()}.
+ */
+package model;
+
+public class MnkBoard {
+
+    /**
+     * The value returned by {@link #getWinner()} while no side has completed a line.
+     */
+    public static final int NONE = -1;
+
+    /**
+     * The largest number of cells a board may have.
+     */
+    public static final int MAX_CELLS = 4096;
+
+    /**
+     * The largest absolute value returned by {@link #evaluate()}.
+     */
+    public static final int MAX_EVALUATION = 1 << 28;
+
+    private static final int FORK_EVALUATION = MAX_EVALUATION / 2;
+    private static final int MAX_LINE_EVALUATION = MAX_EVALUATION / 4;
+
+    private static final int[][] DIRECTIONS = { { 0, 1 }, { 1, 0 }, { 1, 1 }, { 1, -1 } };
+
+    private final int width;
+    private final int height;
+    private final int winLength;
+    private final int[][] cellLines;
+    private final int[][] lineCells;
+    private final long[][] stones;
+    private final long[] blocked;
+    private final int[][] lineCounts;
+    private final boolean[] deadLines;
+    private final int[] threats;
+    private final int[] history;
+    private int moveCount;
+    private final int[] emptyCells;
+    private final int[] emptyIndex;
+    private int emptyCount;
+    private int sideToMove;
+    private int winner;
+    private int winningMove;
+    private int winningLine;
+    private long hash;
+    private long lineScore;
+
+    /**
+     * Constructor for the MnkBoard class.
+     * Creates an empty board with the first side to move.
+     *
+     * @param width     The number of columns of the board.
+     * @param height    The number of rows of the board.
+     * @param winLength The number of stones in a row needed to win.
+     */
+    public MnkBoard(int width, int height, int winLength) {
+        if (width < 1 || height < 1 || width * height > MAX_CELLS || winLength < 1
+                || winLength > Math.max(width, height)) {
+            throw new IllegalArgumentException("Invalid board " + width + "x" + height + " with k=" + winLength);
+        }
+
+        this.width = width;
+        this.height = height;
+        this.winLength = winLength;
+
+        int cells = width * height;
+        int words = (cells + 63) >>> 6;
+        this.lineCells = buildLines(width, height, winLength);
+        this.cellLines = indexLines(cells, lineCells);
+        this.stones = new long[2][words];
+        this.blocked = new long[words];
+        this.lineCounts = new int[2][lineCells.length];
+        this.deadLines = new boolean[lineCells.length];
+        // With k = 1 every empty line is one stone short of k.
+        int threatCount = winLength == 1 ? lineCells.length : 0;
+        this.threats = new int[] { threatCount, threatCount };
+        this.history = new int[cells];
+        this.emptyCells = new int[cells];
+        this.emptyIndex = new int[cells];
+        for (int cell = 0; cell < cells; cell++) {
+            emptyCells[cell] = cell;
+            emptyIndex[cell] = cell;
+        }
+        this.emptyCount = cells;
+        this.winner = NONE;
+        this.winningMove = -1;
+        this.winningLine = -1;
+        this.hash = Zobrist.empty(width, height, winLength);
+    }
+
+    /**
+     * Copy constructor for the MnkBoard class.
+     * The copy shares the immutable line tables of the original and can be played on independently.
+     *
+     * @param other The board to copy.
+     */
+    public MnkBoard(MnkBoard other) {
+        this.width = other.width;
+        this.height = other.height;
+        this.winLength = other.winLength;
+        this.lineCells = other.lineCells;
+        this.cellLines = other.cellLines;
+        this.stones = new long[][] { other.stones[0].clone(), other.stones[1].clone() };
+        this.blocked = other.blocked.clone();
+        this.lineCounts = new int[][] { other.lineCounts[0].clone(), other.lineCounts[1].clone() };
+        this.deadLines = other.deadLines.clone();
+        this.threats = other.threats.clone();
+        this.history = other.history.clone();
+        this.moveCount = other.moveCount;
+        this.emptyCells = other.emptyCells.clone();
+        this.emptyIndex = other.emptyIndex.clone();
+        this.emptyCount = other.emptyCount;
+        this.sideToMove = other.sideToMove;
+        this.winner = other.winner;
+        this.winningMove = other.winningMove;
+        this.winningLine = other.winningLine;
+        this.hash = other.hash;
+        this.lineScore = other.lineScore;
+    }
+
+    /**
+     * Builds a board from a 2D array of strings such as the one returned by {@code GameBoard.getBoard()}.
+     * Cells holding any symbol other than the two given ones are blocked for both sides.
+     *
+     * @param board       The 2D array representing the board.
+     * @param winLength   The number of stones in a row needed to win.
+     * @param moverSymbol The symbol of the side to move, which becomes side 0.
+     * @param otherSymbol The symbol of the other side, which becomes side 1.
+     * @return The board with side 0 to move.
+     */
+    public static MnkBoard fromStrings(String[][] board, int winLength, String moverSymbol, String otherSymbol) {
+        MnkBoard result = new MnkBoard(board[0].length, board.length, winLength);
+
+        for (int row = 0; row < board.length; row++) {
+            for (int col = 0; col < board[row].length; col++) {
+                String symbol = board[row][col];
+                if (symbol != null) {
+                    int side = symbol.equals(moverSymbol) ? 0 : symbol.equals(otherSymbol) ? 1 : NONE;
+                    result.place(result.cell(row, col), side);
+                }
+            }
+        }
+
+        // A line already complete on the given board is never taken back by undo().
+        result.winningMove = -1;
+        result.sideToMove = 0;
+        return result;
+    }
+
+    /**
+     * Plays a move for the side to move and passes the turn to the other side.
+     *
+     * @param cell The index of an empty cell (row * width + column).
+     */
+    public void play(int cell) {
+        int side = sideToMove;
+        place(cell, side);
+        history[moveCount++] = cell;
+        sideToMove = 1 - side;
+        hash ^= Zobrist.sideToMove();
+    }
+
+    /**
+     * Takes back the last move played with {@link #play(int)}.
+     */
+    public void undo() {
+        int cell = history[--moveCount];
+        int side = 1 - sideToMove;
+
+        stones[side][cell >>> 6] &= ~(1L << cell);
+        // Moves are taken back in reverse order, so the cell is still right after the empty ones.
+        emptyCount++;
+        hash ^= Zobrist.stone(side, cell) ^ Zobrist.sideToMove();
+        for (int line : cellLines[cell]) {
+            scoreLine(line, -1);
+            lineCounts[side][line]--;
+            scoreLine(line, 1);
+        }
+
+        if (winningMove == moveCount) {
+            winner = NONE;
+            winningMove = -1;
+            winningLine = -1;
+        }
+        sideToMove = side;
+    }
+
+    /**
+     * Passes the turn to the other side without playing, to ask what a side threatens if it could move again.
+     * A second pass gives the turn back.
+     */
+    public void pass() {
+        sideToMove = 1 - sideToMove;
+        hash ^= Zobrist.sideToMove();
+    }
+
+    private void place(int cell, int side) {
+        if (side == NONE) {
+            blocked[cell >>> 6] |= 1L << cell;
+            removeEmpty(cell);
+            hash ^= Zobrist.stone(Zobrist.BLOCKED, cell);
+            for (int line : cellLines[cell]) {
+                scoreLine(line, -1);
+                deadLines[line] = true;
+            }
+            return;
+        }
+
+        stones[side][cell >>> 6] |= 1L << cell;
+        removeEmpty(cell);
+        hash ^= Zobrist.stone(side, cell);
+        for (int line : cellLines[cell]) {
+            scoreLine(line, -1);
+            if (++lineCounts[side][line] == winLength && winner == NONE) {
+                winner = side;
+                winningMove = moveCount;
+                winningLine = line;
+            }
+            scoreLine(line, 1);
+        }
+    }
+
+    /**
+     * Removes a cell from the list of empty cells by swapping it with the last empty one, and keeps it just past
+     * the end of the list so that {@link #undo()} only has to lengthen the list again.
+     */
+    private void removeEmpty(int cell) {
+        int index = emptyIndex[cell];
+        int last = emptyCells[--emptyCount];
+        emptyCells[index] = last;
+        emptyIndex[last] = index;
+        emptyCells[emptyCount] = cell;
+        emptyIndex[cell] = emptyCount;
+    }
+
+    /**
+     * Adds the heuristic value of a line to the running totals, or removes it with a sign of -1.
+     * A line counts only for a side that holds stones on it while the other side holds none,
+     * and a line with a blocked cell counts for nobody.
+     */
+    private void scoreLine(int line, int sign) {
+        if (deadLines[line]) {
+            return;
+        }
+
+        int first = lineCounts[0][line];
+        int second = lineCounts[1][line];
+        if (second == 0) {
+            lineScore += sign * lineWeight(first);
+            if (first == winLength - 1) {
+                threats[0] += sign;
+            }
+        }
+        if (first == 0) {
+            lineScore -= sign * lineWeight(second);
+            if (second == winLength - 1) {
+                threats[1] += sign;
+            }
+        }
+    }
+
+    /**
+     * Gets the value of an open line holding a number of stones: each extra stone makes it worth eight times more.
+     */
+    private static long lineWeight(int stones) {
+        return stones == 0 ? 0 : 1L << Math.min(3 * (stones - 1), 24);
+    }
+
+    /**
+     * Scores the position heuristically from the point of view of the side to move.
+     * Every line still open to a single side is worth more to that side the more of its stones it holds.
+     * A line one stone short of k is a threat: the side to move wins at once with one, and an opponent with two,
+     * a fork, can usually block only one of them. The score is kept up to date as moves are played and taken back,
+     * so this costs no scan of the board.
+     *
+     * @return A score between -{@link #MAX_EVALUATION} and {@link #MAX_EVALUATION}, positive if the side to move
+     *         is better off.
+     */
+    public int evaluate() {
+        int mover = sideToMove;
+        if (threats[mover] > 0) {
+            return MAX_EVALUATION;
+        }
+        if (threats[1 - mover] > 1) {
+            return -FORK_EVALUATION;
+        }
+
+        long score = mover == 0 ? lineScore : -lineScore;
+        return (int) Math.max(-MAX_LINE_EVALUATION, Math.min(MAX_LINE_EVALUATION, score));
+    }
+
+    /**
+     * Gets the number of threats of a side: open lines one stone short of k.
+     *
+     * @param side The side (0 or 1).
+     * @return The number of lines the side could complete with its next stone.
+     */
+    public int getThreatCount(int side) {
+        return threats[side];
+    }
+
+    /**
+     * Checks whether a move at a cell would complete a line for a side.
+     *
+     * @param cell The index of an empty cell.
+     * @param side The side (0 or 1).
+     * @return {@code true} if the move wins immediately, {@code false} otherwise.
+     */
+    public boolean isWinningMove(int cell, int side) {
+        for (int line : cellLines[cell]) {
+            if (lineCounts[side][line] == winLength - 1) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Lists the empty cells of the open lines on which a side holds at least a number of stones and the other side
+     * none. A stone on one of them brings such a line one stone closer to k: with k - 1 stones they are the cells
+     * that win at once, and with k - 2 the cells that make a four, as Gomoku players call a line one stone short.
+     *
+     * @param side      The side (0 or 1).
+     * @param minStones The fewest stones of the side a line must hold.
+     * @param cells     The buffer that receives the cell indices, each listed once.
+     * @return The number of cells written to the buffer.
+     */
+    public int threatCells(int side, int minStones, int[] cells) {
+        long[] listed = new long[blocked.length];
+        int count = 0;
+
+        for (int line = 0; line < lineCells.length; line++) {
+            if (deadLines[line] || lineCounts[side][line] < minStones || lineCounts[1 - side][line] != 0) {
+                continue;
+            }
+            for (int cell : lineCells[line]) {
+                long bit = 1L << cell;
+                if ((listed[cell >>> 6] & bit) == 0 && isEmpty(cell)) {
+                    listed[cell >>> 6] |= bit;
+                    cells[count++] = cell;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Checks whether a cell is empty.
+     *
+     * @param cell The index of the cell.
+     * @return {@code true} if no stone and no foreign symbol is on the cell.
+     */
+    public boolean isEmpty(int cell) {
+        int word = cell >>> 6;
+        long bit = 1L << cell;
+        return ((stones[0][word] | stones[1][word] | blocked[word]) & bit) == 0;
+    }
+
+    /**
+     * Gets the side owning a cell.
+     *
+     * @param cell The index of the cell.
+     * @return 0 or 1 for a stone, or {@link #NONE} for an empty or blocked cell.
+     */
+    public int getSide(int cell) {
+        long bit = 1L << cell;
+        if ((stones[0][cell >>> 6] & bit) != 0) {
+            return 0;
+        }
+        if ((stones[1][cell >>> 6] & bit) != 0) {
+            return 1;
+        }
+        return NONE;
+    }
+
+    /**
+     * Gets the index of a cell.
+     *
+     * @param row    The row of the cell.
+     * @param column The column of the cell.
+     * @return The index of the cell (row * width + column).
+     */
+    public int cell(int row, int column) {
+        return row * width + column;
+    }
+
+    /**
+     * Gets the side that completed a line.
+     *
+     * @return 0 or 1, or {@link #NONE} if no side has won.
+     */
+    public int getWinner() {
+        return winner;
+    }
+
+    /**
+     * Gets the line completed by the winner, found by its counter when the winning stone was placed.
+     *
+     * @return The cell indices of the line in order, or an empty array if no side has won.
+     */
+    public int[] getWinningLine() {
+        return winningLine < 0 ? new int[0] : lineCells[winningLine].clone();
+    }
+
+    /**
+     * Checks whether no empty cell is left.
+     *
+     * @return {@code true} if the board is full, {@code false} otherwise.
+     */
+    public boolean isFull() {
+        return emptyCount == 0;
+    }
+
+    /**
+     * Checks whether the game is over, either because a side won or because the board is full.
+     *
+     * @return {@code true} if no more moves can be played, {@code false} otherwise.
+     */
+    public boolean isGameOver() {
+        return winner != NONE || emptyCount == 0;
+    }
+
+    /**
+     * Gets the number of lines of k cells that pass through a cell.
+     * Central cells lie on more lines, so this is a cheap measure of how valuable a cell is.
+     *
+     * @param cell The index of the cell.
+     * @return The number of lines through the cell.
+     */
+    public int getLineCount(int cell) {
+        return cellLines[cell].length;
+    }
+
+    /**
+     * Gets the cells of every line of k cells on the board. The arrays are shared and must not be modified.
+     *
+     * @return The cell indices of each line.
+     */
+    int[][] getLines() {
+        return lineCells;
+    }
+
+    private static int[][] buildLines(int width, int height, int winLength) {
+        int count = 0;
+        int[][] lines = new int[4 * width * height][];
+
+        for (int[] direction : DIRECTIONS) {
+            for (int row = 0; row < height; row++) {
+                for (int col = 0; col < width; col++) {
+                    int endRow = row + direction[0] * (winLength - 1);
+                    int endCol = col + direction[1] * (winLength - 1);
+                    if (endRow < 0 || endRow >= height || endCol < 0 || endCol >= width) {
+                        continue;
+                    }
+
+                    int[] line = new int[winLength];
+                    for (int i = 0; i < winLength; i++) {
+                        line[i] = (row + direction[0] * i) * width + col + direction[1] * i;
+                    }
+                    lines[count++] = line;
+                }
+            }
+        }
+
+        // With k = 1 the four directions describe the same single-cell line.
+        int unique = winLength == 1 ? width * height : count;
+        int[][] result = new int[unique][];
+        System.arraycopy(lines, 0, result, 0, unique);
+        return result;
+    }
+
+    private static int[][] indexLines(int cells, int[][] lineCells) {
+        int[] sizes = new int[cells];
+        for (int[] line : lineCells) {
+            for (int cell : line) {
+                sizes[cell]++;
+            }
+        }
+
+        int[][] result = new int[cells][];
+        for (int cell = 0; cell < cells; cell++) {
+            result[cell] = new int[sizes[cell]];
+            sizes[cell] = 0;
+        }
+
+        for (int line = 0; line < lineCells.length; line++) {
+            for (int cell : lineCells[line]) {
+                result[cell][sizes[cell]++] = line;
+            }
+        }
+        return result;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getWinLength() {
+        return winLength;
+    }
+
+    public int getCellCount() {
+        return width * height;
+    }
+
+    public int getEmptyCount() {
+        return emptyCount;
+    }
+
+    /**
+     * Gets one of the empty cells, in no particular order. The order changes as moves are played and taken back.
+     *
+     * @param index The position in the list of empty cells, from 0 to {@link #getEmptyCount()} - 1.
+     * @return The index of an empty cell.
+     */
+    public int getEmptyCell(int index) {
+        return emptyCells[index];
+    }
+
+    public int getMoveCount() {
+        return moveCount;
+    }
+
+    public int getSideToMove() {
+        return sideToMove;
+    }
+
+    /**
+     * Gets the Zobrist hash of the position, including the board dimensions and the side to move.
+     *
+     * @return The 64-bit hash of the position.
+     */
+    public long getHash() {
+        return hash;
+    }
+}
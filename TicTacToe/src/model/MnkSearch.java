@@ -0,0 +1,843 @@
+/**
+ * The MnkSearch class finds the best move on an {@link MnkBoard} of any size with an alpha-beta negamax search
+ * using principal variation search: the first move of a node is searched with the full window and the others
+ * with a null window, which is cheaper and only re-searched when a move turns out to be better.
+ * Moves are tried in order of immediate wins, blocks of the opponent's immediate wins, in a search with a depth
+ * limit the two killer moves of the ply (the last moves that refuted a sibling position), and then the other moves
+ * by the number of lines through their cell, which on the 3x3 board is the center, the corners and the edges,
+ * with ties broken by the history score, the cutoffs each cell has caused so far in the search.
+ * A win played on the move at ply p scores {@code WIN_SCORE - p}, so faster wins and slower losses score better,
+ * and windows that cannot contain a score reachable from a node are cut by mate-distance pruning.
+ * A search can be stopped from another thread with {@link #cancel()}; it then ends with a
+ * {@link CancellationException}. {@link ParallelMnkSearch} uses one instance per thread for the serial
+ * parts of its tree. Instances may share a {@link TranspositionTable} keyed by the Zobrist hash of the board,
+ * so work done by one search, or by an earlier one, is reused by the others. Positions covered by an
+ * {@link EndgameTablebase} are scored from the table instead of being searched.
+ * A search can be capped in depth, below which positions are scored by {@link MnkBoard#evaluate()}, and in time.
+ * With a time limit the search deepens iteratively, one ply at a time, searching the best move of the last depth
+ * first and starting from an aspiration window around the score of the last depth; when time runs out it returns
+ * the best move of the deepest depth it completed.
+ */
+package model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+
+public class MnkSearch {
+
+    /**
+     * The score of a win on the first move. It is larger than any heuristic score plus any number of plies,
+     * so every win scores above every position that is not won.
+     */
+    public static final int WIN_SCORE = 1 << 30;
+
+    private static final int MIN_WIN_SCORE = WIN_SCORE - MnkBoard.MAX_CELLS;
+
+    private static final int INFINITY = Integer.MAX_VALUE;
+    private static final int WIN_PRIORITY = 1 << 18;
+    private static final int BLOCK_PRIORITY = 1 << 17;
+    private static final int KILLER_PRIORITY = 1 << 16;
+    private static final int LINE_SHIFT = 10;
+    private static final int MAX_LINE_PRIORITY = (KILLER_PRIORITY >> 1 >> LINE_SHIFT) - 1;
+    private static final int HISTORY_LIMIT = 1 << LINE_SHIFT;
+    private static final int MAX_HISTORY_BONUS = 32;
+    private static final int STOP_CHECK_INTERVAL = 1023;
+    private static final int ASPIRATION_WINDOW = 256;
+
+    private final TranspositionTable table;
+    private EndgameTablebase tablebase;
+    private int[][] moveBuffers = new int[0][];
+    private int[][] killers = new int[0][];
+    private int[][] history = new int[2][0];
+    private long nodeCount;
+    private long cutoffCount;
+    private long tableProbes;
+    private long tableHits;
+    private long elapsedNanos;
+    private int bestScore;
+    private volatile boolean cancelled;
+    private ParallelMnkSearch.SplitPoint scope;
+    private int depthLimit = Difficulty.UNLIMITED;
+    private int horizon = Difficulty.UNLIMITED;
+    private boolean orderingHeuristics = true;
+    private int completedDepth;
+    private long timeLimitMillis;
+    private long deadline;
+    private boolean timedOut;
+
+    /**
+     * Constructor for the MnkSearch class without a transposition table.
+     */
+    public MnkSearch() {
+        this(null);
+    }
+
+    /**
+     * Constructor for the MnkSearch class.
+     *
+     * @param table The transposition table to read and fill, or null to search without one.
+     */
+    public MnkSearch(TranspositionTable table) {
+        this.table = table;
+    }
+
+    /**
+     * Finds the best move for the side to move. Among moves with the same score,
+     * the one with the lowest cell index (first in row-major order) is chosen.
+     * With a time limit, the position is searched to depth 1, 2, 3 and so on, up to the depth limit, until a depth
+     * proves a win or a loss or time runs out. The best move of the deepest completed depth is returned; if not even
+     * depth 1 was completed, it is the best of the root moves searched so far, or the first move in search order.
+     *
+     * @param board The position to search. It is played on during the search and restored afterwards.
+     * @return The index of the best cell, or -1 if no empty cell is left.
+     * @throws CancellationException if {@link #cancel()} was called before the search ended.
+     */
+    public int findBestMove(MnkBoard board) {
+        long start = System.nanoTime();
+        try {
+            return searchBestMove(board);
+        } finally {
+            elapsedNanos = System.nanoTime() - start;
+        }
+    }
+
+    private int searchBestMove(MnkBoard board) {
+        ensureBuffers(board, 0);
+        clearHeuristics();
+        resetCounters();
+        scope = null;
+        startClock();
+
+        if (deadline == 0) {
+            horizon = depthLimit;
+            completedDepth = Math.min(depthLimit, board.getEmptyCount());
+            return searchRoot(board, -1, -INFINITY, INFINITY);
+        }
+
+        int bestCell = -1;
+        int score = 0;
+        int lastDepth = Math.min(depthLimit, board.getEmptyCount());
+        completedDepth = 0;
+
+        for (int depth = 1; depth <= lastDepth; depth++) {
+            // The last depth reaches the end of the game, and is stored as such in the transposition table.
+            horizon = depth == board.getEmptyCount() ? depthLimit : depth;
+            int cell = depth == 1
+                    ? searchRoot(board, bestCell, -INFINITY, INFINITY)
+                    : searchAspiration(board, bestCell, score);
+            if (timedOut && bestCell >= 0) {
+                break;
+            }
+
+            bestCell = cell;
+            score = bestScore;
+            if (timedOut) {
+                break;
+            }
+
+            completedDepth = depth;
+            // A win or loss found at some depth is proven, and no deeper search finds a faster one.
+            if (isWinOrLoss(score)) {
+                break;
+            }
+        }
+
+        if (bestCell < 0 && lastDepth > 0) {
+            int[] moves = buffer(0, board);
+            orderMoves(board, moves);
+            bestCell = moves[0];
+            score = 0;
+        }
+        bestScore = score;
+        return bestCell;
+    }
+
+    /**
+     * Searches the root with a narrow window around the score expected from the previous depth, and again with
+     * the full window if the score falls outside of it.
+     */
+    private int searchAspiration(MnkBoard board, int firstCell, int guess) {
+        int alpha = guess - ASPIRATION_WINDOW;
+        int beta = guess + ASPIRATION_WINDOW;
+        int cell = searchRoot(board, firstCell, alpha, beta);
+
+        if (timedOut || (cell >= 0 && bestScore < beta)) {
+            return cell;
+        }
+        return searchRoot(board, firstCell, -INFINITY, INFINITY);
+    }
+
+    /**
+     * Searches every root move up to the current horizon. Only a score inside the window is exact:
+     * if no move beats alpha, no cell is returned, and the first move reaching beta ends the search.
+     *
+     * @param board     The position to search.
+     * @param firstCell The cell searched first, usually the best move of the previous depth, or -1.
+     * @param alpha     The lower end of the window.
+     * @param beta      The upper end of the window.
+     * @return The best cell, or -1 if no move scored above alpha before the search ended.
+     */
+    private int searchRoot(MnkBoard board, int firstCell, int alpha, int beta) {
+        int[] moves = buffer(0, board);
+        int count = orderMoves(board, moves);
+        moveToFront(moves, count, firstCell);
+        int rootMoves = board.getMoveCount();
+        int bestCell = -1;
+        bestScore = -INFINITY;
+
+        for (int i = 0; i < count; i++) {
+            int cell = moves[i];
+            // A cell before the current best only has to match its score to replace it, a later one has to beat it.
+            int floor = bestCell < 0 ? alpha : (cell < bestCell ? bestScore - 1 : bestScore);
+            int score;
+
+            board.play(cell);
+            try {
+                if (bestCell < 0) {
+                    score = -negamax(board, 1, -beta, -floor);
+                } else {
+                    score = -negamax(board, 1, -floor - 1, -floor);
+                    if (score > floor && score < beta) {
+                        score = -negamax(board, 1, -beta, -floor);
+                    }
+                }
+            } catch (CancellationException e) {
+                while (board.getMoveCount() > rootMoves) {
+                    board.undo();
+                }
+                if (!timedOut) {
+                    throw e;
+                }
+                break;
+            }
+            board.undo();
+
+            if (score > floor) {
+                bestCell = cell;
+                bestScore = score;
+                if (score >= beta) {
+                    break;
+                }
+            }
+        }
+
+        return bestCell;
+    }
+
+    /**
+     * Scores every legal move of a position and finds the principal variation of each, in one pass.
+     * Each move is searched with the full window, so its score is exact rather than a bound, and the principal
+     * variation is read back move by move, checking which reply keeps the score. Every search goes through the
+     * transposition table, so the moves share the positions they have in common, and the principal variations
+     * are mostly read from the table. Without a time limit, every move is searched to the depth limit. With one,
+     * every move is analysed to depth 1, 2, 3 and so on, up to the depth limit, until every move is a proven win or
+     * loss or time runs out, and the analysis of the deepest completed depth is returned. Depth 1 always completes.
+     *
+     * @param board The position to analyse. It is played on during the search and restored afterwards.
+     * @return The analysis of every empty cell, best move first; among moves with the same score,
+     *         the one with the lowest cell index comes first. The list is empty if the game is over.
+     * @throws CancellationException if {@link #cancel()} was called before the analysis ended.
+     */
+    public List<MoveAnalysis> analyze(MnkBoard board) {
+        long start = System.nanoTime();
+        try {
+            return analyzeMoves(board);
+        } finally {
+            elapsedNanos = System.nanoTime() - start;
+        }
+    }
+
+    private List<MoveAnalysis> analyzeMoves(MnkBoard board) {
+        resetCounters();
+        if (board.isGameOver()) {
+            return new ArrayList<>();
+        }
+
+        ensureBuffers(board, 0);
+        clearHeuristics();
+        scope = null;
+        startClock();
+
+        if (deadline == 0) {
+            horizon = depthLimit;
+            completedDepth = Math.min(depthLimit, board.getEmptyCount());
+            return analyzeToHorizon(board);
+        }
+
+        long timeLimit = deadline;
+        int lastDepth = Math.min(depthLimit, board.getEmptyCount());
+        List<MoveAnalysis> analysis = null;
+        completedDepth = 0;
+
+        for (int depth = 1; depth <= lastDepth; depth++) {
+            horizon = depth == board.getEmptyCount() ? depthLimit : depth;
+            // Depth 1 takes one node per move and is never cut short, so every move gets a score.
+            deadline = depth == 1 ? 0 : timeLimit;
+            try {
+                analysis = analyzeToHorizon(board);
+            } catch (CancellationException e) {
+                if (!timedOut) {
+                    throw e;
+                }
+                break;
+            }
+
+            completedDepth = depth;
+            // Wins and losses are proven, and no deeper search changes them.
+            if (analysis.stream().allMatch(move -> isWinOrLoss(move.getScore()))) {
+                break;
+            }
+        }
+
+        bestScore = analysis.get(0).getScore();
+        return analysis;
+    }
+
+    private List<MoveAnalysis> analyzeToHorizon(MnkBoard board) {
+        List<MoveAnalysis> analysis = new ArrayList<>();
+        int[] moves = buffer(0, board);
+        int count = orderMoves(board, moves);
+        int rootMoves = board.getMoveCount();
+
+        for (int i = 0; i < count; i++) {
+            int cell = moves[i];
+            int score;
+
+            board.play(cell);
+            try {
+                score = -negamax(board, 1, -INFINITY, INFINITY);
+            } finally {
+                while (board.getMoveCount() > rootMoves) {
+                    board.undo();
+                }
+            }
+
+            analysis.add(new MoveAnalysis(toMove(board, cell), score, principalVariation(board, cell, score)));
+        }
+
+        analysis.sort(Comparator.comparingInt(MoveAnalysis::getScore).reversed()
+                .thenComparingInt(move -> move.getMove().getRow())
+                .thenComparingInt(move -> move.getMove().getCol()));
+        bestScore = analysis.get(0).getScore();
+        return analysis;
+    }
+
+    /**
+     * Follows the line of play after a root move whose exact score is known. At each position, the reply whose
+     * score matches the one expected is the best reply; a search with a window of one score around the expected
+     * score tells, usually straight from the transposition table. The line ends when the game is over or at the
+     * horizon, where positions are no longer searched.
+     */
+    private List<Move> principalVariation(MnkBoard board, int cell, int score) {
+        List<Move> line = new ArrayList<>();
+        int rootMoves = board.getMoveCount();
+        int expected = -score;
+
+        line.add(toMove(board, cell));
+        board.play(cell);
+        try {
+            for (int ply = 1; ply < horizon && !board.isGameOver(); ply++) {
+                int[] moves = buffer(ply, board);
+                int count = orderMoves(board, moves);
+                int next = -1;
+
+                for (int i = 0; i < count && next < 0; i++) {
+                    board.play(moves[i]);
+                    int reply = -negamax(board, ply + 1, -expected - 1, -expected + 1);
+                    board.undo();
+                    if (reply == expected) {
+                        next = moves[i];
+                    }
+                }
+
+                // A position scored by the tablebase, with its replies cut off by the horizon, may have none that matches.
+                if (next < 0) {
+                    break;
+                }
+                line.add(toMove(board, next));
+                board.play(next);
+                expected = -expected;
+            }
+        } finally {
+            while (board.getMoveCount() > rootMoves) {
+                board.undo();
+            }
+        }
+
+        return line;
+    }
+
+    private static Move toMove(MnkBoard board, int cell) {
+        return new Move(cell / board.getWidth(), cell % board.getWidth());
+    }
+
+    /**
+     * Searches a subtree for {@link ParallelMnkSearch}. The node count of this instance keeps growing
+     * across calls, so it adds up to the work done by one thread.
+     *
+     * @param board The position to search.
+     * @param ply   The distance from the root of the whole search.
+     * @param alpha The score the side to move is already assured of.
+     * @param beta  The score the other side is already assured of.
+     * @param scope The split point whose cutoff or cancellation makes this subtree useless.
+     * @return The score of the position, or a bound on it if it lies outside (alpha, beta).
+     */
+    int search(MnkBoard board, int ply, int alpha, int beta, ParallelMnkSearch.SplitPoint scope) {
+        ensureBuffers(board, ply);
+        this.scope = scope;
+        this.horizon = depthLimit;
+        this.timedOut = false;
+        return negamax(board, ply, alpha, beta);
+    }
+
+    /**
+     * Scores a position from the point of view of the side to move.
+     *
+     * @param board The position to score.
+     * @param ply   The distance from the root of the search.
+     * @param alpha The score the side to move is already assured of.
+     * @param beta  The score the other side is already assured of.
+     * @return The score of the position, or a bound on it if it lies outside (alpha, beta).
+     */
+    private int negamax(MnkBoard board, int ply, int alpha, int beta) {
+        if ((++nodeCount & STOP_CHECK_INTERVAL) == 0 && isStopRequested())
+            throw new CancellationException("Search cancelled");
+
+        int winner = board.getWinner();
+
+        // The winning move was played on the previous ply.
+        if (winner != MnkBoard.NONE)
+            return winner == board.getSideToMove() ? WIN_SCORE - (ply - 1) : -(WIN_SCORE - (ply - 1));
+
+        if (board.isFull())
+            return 0;
+
+        // Mate-distance pruning: the side to move cannot do better than winning on this ply,
+        // nor worse than losing on the next one.
+        int upper = WIN_SCORE - ply;
+        if (alpha >= upper)
+            return upper;
+
+        int lower = -(WIN_SCORE - (ply + 1));
+        if (beta <= lower)
+            return lower;
+
+        alpha = Math.max(alpha, lower);
+        beta = Math.min(beta, upper);
+
+        if (tablebase != null) {
+            int known = tablebase.probe(board, ply);
+            if (known != EndgameTablebase.UNKNOWN)
+                return known;
+        }
+
+        if (ply >= horizon)
+            return board.evaluate();
+
+        int depth = horizon == Difficulty.UNLIMITED
+                ? TranspositionTable.FULL_DEPTH
+                : Math.min(horizon - ply, TranspositionTable.FULL_DEPTH - 1);
+        long entry = TranspositionTable.MISS;
+        if (table != null) {
+            tableProbes++;
+            entry = table.probe(board.getHash());
+            if (entry != TranspositionTable.MISS)
+                tableHits++;
+        }
+        if (entry != TranspositionTable.MISS && TranspositionTable.depth(entry) >= depth) {
+            int cached = fromTable(TranspositionTable.score(entry), ply);
+            int bound = TranspositionTable.bound(entry);
+
+            if (bound == TranspositionTable.EXACT
+                    || (bound == TranspositionTable.LOWER && cached >= beta)
+                    || (bound == TranspositionTable.UPPER && cached <= alpha))
+                return cached;
+        }
+
+        int alphaStart = alpha;
+        int[] moves = buffer(ply, board);
+        int count = orderMoves(board, moves, ply);
+        int best = -INFINITY;
+
+        for (int i = 0; i < count; i++) {
+            int score;
+
+            board.play(moves[i]);
+            if (i == 0) {
+                score = -negamax(board, ply + 1, -beta, -alpha);
+            } else {
+                score = -negamax(board, ply + 1, -alpha - 1, -alpha);
+                if (score > alpha && score < beta)
+                    score = -negamax(board, ply + 1, -beta, -alpha);
+            }
+            board.undo();
+
+            best = Math.max(best, score);
+            alpha = Math.max(alpha, score);
+
+            if (alpha >= beta) {
+                cutoffCount++;
+                recordCutoff(ply, board.getSideToMove(), moves[i], Math.min(depth, board.getEmptyCount()));
+                break;
+            }
+        }
+
+        if (table != null) {
+            int bound = TranspositionTable.EXACT;
+            if (best <= alphaStart)
+                bound = TranspositionTable.UPPER;
+            else if (best >= beta)
+                bound = TranspositionTable.LOWER;
+
+            table.store(board.getHash(), toTable(best, ply), bound, depth);
+        }
+
+        return best;
+    }
+
+    /**
+     * Converts a score for the transposition table. Only wins and losses depend on the ply they are found at;
+     * heuristic scores are stored as they are.
+     */
+    private static int toTable(int score, int ply) {
+        return isWinOrLoss(score) ? TranspositionTable.toStored(score, ply) : score;
+    }
+
+    private static int fromTable(int score, int ply) {
+        return isWinOrLoss(score) ? TranspositionTable.fromStored(score, ply) : score;
+    }
+
+    /**
+     * Checks whether a score is a proven win or loss rather than a draw or a heuristic score.
+     *
+     * @param score The score.
+     * @return {@code true} for a win or a loss.
+     */
+    static boolean isWinOrLoss(int score) {
+        return Math.abs(score) >= MIN_WIN_SCORE;
+    }
+
+    /**
+     * Lists the empty cells in the order they should be searched, without killer moves or history.
+     *
+     * @param board The position.
+     * @param moves The buffer that receives the cell indices.
+     * @return The number of moves written to the buffer.
+     */
+    static int orderMoves(MnkBoard board, int[] moves) {
+        return orderMoves(board, moves, null, null);
+    }
+
+    /**
+     * Lists the empty cells in the order they should be searched, using the killer moves of the ply
+     * and the history of the side to move gathered by this instance.
+     *
+     * @param board The position.
+     * @param moves The buffer that receives the cell indices.
+     * @param ply   The distance from the root of the search.
+     * @return The number of moves written to the buffer.
+     */
+    int orderMoves(MnkBoard board, int[] moves, int ply) {
+        ensureBuffers(board, ply);
+        if (!orderingHeuristics) {
+            return orderMoves(board, moves, null, null);
+        }
+        // Against a horizon, a move that refuted a sibling usually refutes this position too. In a search to the
+        // end of the game the wins, blocks and transposition table already settle most nodes, and killers there
+        // only push aside better connected cells, so they are left out.
+        int[] killerMoves = horizon == Difficulty.UNLIMITED ? null : killers[ply];
+        return orderMoves(board, moves, killerMoves, history[board.getSideToMove()]);
+    }
+
+    private static int orderMoves(MnkBoard board, int[] moves, int[] killerMoves, int[] historyScores) {
+        int mover = board.getSideToMove();
+        int count = 0;
+
+        for (int cell = 0; cell < board.getCellCount(); cell++) {
+            if (board.isEmpty(cell)) {
+                int priority = Math.min(board.getLineCount(cell), MAX_LINE_PRIORITY) << LINE_SHIFT;
+                if (board.isWinningMove(cell, mover)) {
+                    priority += WIN_PRIORITY;
+                } else if (board.isWinningMove(cell, 1 - mover)) {
+                    priority += BLOCK_PRIORITY;
+                } else if (killerMoves != null && cell == killerMoves[0]) {
+                    priority += KILLER_PRIORITY + (KILLER_PRIORITY >> 1);
+                } else if (killerMoves != null && cell == killerMoves[1]) {
+                    priority += KILLER_PRIORITY;
+                } else if (historyScores != null) {
+                    priority += historyScores[cell];
+                }
+                // Sorting ascending puts higher priorities last and, among equals, lower cells last.
+                moves[count++] = (priority << 12) | (0xFFF - cell);
+            }
+        }
+
+        Arrays.sort(moves, 0, count);
+        for (int i = 0, j = count - 1; i < j; i++, j--) {
+            int swap = moves[i];
+            moves[i] = moves[j];
+            moves[j] = swap;
+        }
+        for (int i = 0; i < count; i++) {
+            moves[i] = 0xFFF - (moves[i] & 0xFFF);
+        }
+        return count;
+    }
+
+    /**
+     * Moves a cell to the front of an ordered move list, keeping the order of the other moves.
+     *
+     * @param moves The move list.
+     * @param count The number of moves in the list.
+     * @param cell  The cell to search first, or -1 to leave the list as it is.
+     */
+    static void moveToFront(int[] moves, int count, int cell) {
+        for (int i = 0; i < count; i++) {
+            if (moves[i] == cell) {
+                System.arraycopy(moves, 0, moves, 1, i);
+                moves[0] = cell;
+                return;
+            }
+        }
+    }
+
+    private boolean isStopRequested() {
+        if (cancelled || (scope != null && scope.isStopped())) {
+            return true;
+        }
+        if (deadline != 0 && System.nanoTime() - deadline > 0) {
+            timedOut = true;
+            return true;
+        }
+        return false;
+    }
+
+    private void startClock() {
+        timedOut = false;
+        deadline = timeLimitMillis > 0 ? deadline(timeLimitMillis) : 0;
+    }
+
+    /**
+     * Gets the {@link System#nanoTime()} at which a search started now and given some milliseconds must stop.
+     * The result is never 0, which means no deadline.
+     */
+    static long deadline(long timeLimitMillis) {
+        long deadline = System.nanoTime() + timeLimitMillis * 1_000_000L;
+        return deadline == 0 ? 1 : deadline;
+    }
+
+    /**
+     * Remembers a move that caused a cutoff: it becomes the first killer move of its ply, and its history score
+     * grows with the depth left below the node, so cutoffs near the root weigh more.
+     */
+    private void recordCutoff(int ply, int side, int cell, int depth) {
+        int[] slots = killers[ply];
+        if (slots[0] != cell) {
+            slots[1] = slots[0];
+            slots[0] = cell;
+        }
+
+        int[] scores = history[side];
+        scores[cell] += Math.min(depth, MAX_HISTORY_BONUS);
+        if (scores[cell] >= HISTORY_LIMIT) {
+            // Halving every score keeps them in range and lets recent cutoffs outweigh old ones.
+            for (int[] sideScores : history) {
+                for (int i = 0; i < sideScores.length; i++) {
+                    sideScores[i] >>= 1;
+                }
+            }
+        }
+    }
+
+    private void clearHeuristics() {
+        for (int[] slots : killers) {
+            Arrays.fill(slots, -1);
+        }
+        for (int[] scores : history) {
+            Arrays.fill(scores, 0);
+        }
+    }
+
+    private void ensureBuffers(MnkBoard board, int ply) {
+        int needed = ply + board.getEmptyCount() + 1;
+        if (moveBuffers.length < needed) {
+            moveBuffers = Arrays.copyOf(moveBuffers, needed);
+        }
+        if (killers.length < needed) {
+            int old = killers.length;
+            killers = Arrays.copyOf(killers, needed);
+            for (int i = old; i < needed; i++) {
+                killers[i] = new int[] { -1, -1 };
+            }
+        }
+        if (history[0].length != board.getCellCount()) {
+            history = new int[2][board.getCellCount()];
+        }
+    }
+
+    /**
+     * Counts a node visited by {@link ParallelMnkSearch} outside of this instance's own recursion.
+     */
+    void addNode() {
+        nodeCount++;
+    }
+
+    /**
+     * Prepares this instance to order the moves of a split node of {@link ParallelMnkSearch} with the killer moves
+     * and history it gathered in its own subtrees, within its current depth limit.
+     *
+     * @param board The position of the split node.
+     * @param ply   The distance of the split node from the root of the whole search.
+     */
+    void enterSplitNode(MnkBoard board, int ply) {
+        ensureBuffers(board, ply);
+        this.horizon = depthLimit;
+    }
+
+    /**
+     * Counts a beta cutoff made by {@link ParallelMnkSearch} outside of this instance's own recursion,
+     * and records the move that caused it in the killer moves and history of this instance.
+     *
+     * @param board The position where the cutoff was made, with the side that made it to move.
+     * @param ply   The distance of the position from the root of the whole search.
+     * @param cell  The move that reached beta.
+     */
+    void addCutoff(MnkBoard board, int ply, int cell) {
+        cutoffCount++;
+        int depth = horizon == Difficulty.UNLIMITED ? board.getEmptyCount()
+                : Math.min(horizon - ply, board.getEmptyCount());
+        recordCutoff(ply, board.getSideToMove(), cell, depth);
+    }
+
+    private void resetCounters() {
+        nodeCount = 0;
+        cutoffCount = 0;
+        tableProbes = 0;
+        tableHits = 0;
+    }
+
+    /**
+     * Sets the number of plies searched before positions are scored by {@link MnkBoard#evaluate()}.
+     *
+     * @param depthLimit The depth limit in plies, or {@link Difficulty#UNLIMITED} to search to the end of the game.
+     */
+    public void setDepthLimit(int depthLimit) {
+        this.depthLimit = depthLimit;
+    }
+
+    public int getDepthLimit() {
+        return depthLimit;
+    }
+
+    /**
+     * Sets whether moves are also ordered by the killer moves and history gathered during the search,
+     * or only by wins, blocks and lines. They are used by default; turning them off shows how many nodes they save.
+     *
+     * @param orderingHeuristics {@code true} to order moves by killer moves and history.
+     */
+    public void setOrderingHeuristics(boolean orderingHeuristics) {
+        this.orderingHeuristics = orderingHeuristics;
+    }
+
+    /**
+     * Gets the deepest depth the last search completed. Without a time limit it is the depth limit,
+     * or the number of empty cells if that is smaller.
+     *
+     * @return The completed depth in plies, or 0 if time ran out during depth 1.
+     */
+    public int getCompletedDepth() {
+        return completedDepth;
+    }
+
+    /**
+     * Sets the longest time a call to {@link #findBestMove(MnkBoard)} or {@link #analyze(MnkBoard)} may take.
+     *
+     * @param timeLimitMillis The time limit in milliseconds, or 0 for no limit.
+     */
+    public void setTimeLimit(long timeLimitMillis) {
+        this.timeLimitMillis = timeLimitMillis;
+    }
+
+    /**
+     * Sets the {@link System#nanoTime()} after which the subtrees searched for {@link ParallelMnkSearch} stop.
+     *
+     * @param deadline The deadline, or 0 for none.
+     */
+    void setDeadline(long deadline) {
+        this.deadline = deadline;
+    }
+
+    /**
+     * Checks whether the last search stopped because its time limit ran out.
+     *
+     * @return {@code true} if the time limit cut the last search short.
+     */
+    public boolean isTimedOut() {
+        return timedOut;
+    }
+
+    /**
+     * Sets the tablebase probed by the search.
+     *
+     * @param tablebase The tablebase of the board searched, or null to search without one.
+     */
+    public void setTablebase(EndgameTablebase tablebase) {
+        this.tablebase = tablebase;
+    }
+
+    /**
+     * Stops the running search, and any later one. It is safe to call from any thread.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Checks whether {@link #cancel()} was called.
+     *
+     * @return {@code true} if the search was cancelled.
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    private int[] buffer(int ply, MnkBoard board) {
+        if (moveBuffers[ply] == null) {
+            moveBuffers[ply] = new int[board.getCellCount()];
+        }
+        return moveBuffers[ply];
+    }
+
+    /**
+     * Gets the number of positions visited by the last search.
+     *
+     * @return The node count of the last search.
+     */
+    public long getNodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * Gets the statistics of the last call to {@link #findBestMove(MnkBoard)} or {@link #analyze(MnkBoard)}.
+     * For an instance searching subtrees for {@link ParallelMnkSearch}, the counts cover all of its subtrees
+     * and no time is measured.
+     *
+     * @return The statistics of the last search.
+     */
+    public SearchStats getStats() {
+        return new SearchStats(nodeCount, completedDepth, elapsedNanos, cutoffCount, tableProbes, tableHits);
+    }
+
+    /**
+     * Gets the score of the move returned by the last search, from the point of view of the side that moved.
+     *
+     * @return {@link #WIN_SCORE} minus the ply of the winning move for a win, the opposite for a loss,
+     *         0 for a draw, or a heuristic score if the search was cut off by its depth limit.
+     */
+    public int getBestScore() {
+        return bestScore;
+    }
+}
@@ -0,0 +1,52 @@
+/**
+ * The Move class represents a move on the board: the row and column of the cell to mark.
+ * It is immutable, so it can be handed from a search thread to the Event Dispatch Thread safely.
+ */
+package model;
+
+public final class Move {
+
+    private final int row;
+    private final int col;
+
+    /**
+     * Constructor for the Move class.
+     *
+     * @param row The row index of the cell (starting from 0).
+     * @param col The column index of the cell (starting from 0).
+     */
+    public Move(int row, int col) {
+        this.row = row;
+        this.col = col;
+    }
+
+    public int getRow() {
+        return row;
+    }
+
+    public int getCol() {
+        return col;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof Move)) {
+            return false;
+        }
+        Move other = (Move) obj;
+        return row == other.row && col == other.col;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * row + col;
+    }
+
+    @Override
+    public String toString() {
+        return "(" + row + ", " + col + ")";
+    }
+}
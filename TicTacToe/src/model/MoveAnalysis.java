@@ -0,0 +1,72 @@
+/**
+ * The MoveAnalysis class holds what a search found out about one legal move: its score and its principal variation,
+ * the line of play expected to follow it when both sides play their best.
+ * Scores are seen from the side to move and compare like those of {@link MnkSearch}: a won move scores
+ * {@code WIN_SCORE - p} when the win comes on ply p, a lost move the opposite, a draw 0, and a position cut off by
+ * a depth limit its heuristic {@link MnkBoard#evaluate()} score. It is immutable, so it can be handed from a search
+ * thread to the Event Dispatch Thread safely.
+ */
+package model;
+
+import java.util.List;
+
+public final class MoveAnalysis {
+
+    private final Move move;
+    private final int score;
+    private final List<Move> principalVariation;
+
+    /**
+     * Constructor for the MoveAnalysis class.
+     *
+     * @param move               The analysed move.
+     * @param score              The score of the move for the side playing it.
+     * @param principalVariation The expected line of play, starting with the move itself.
+     */
+    public MoveAnalysis(Move move, int score, List<Move> principalVariation) {
+        this.move = move;
+        this.score = score;
+        this.principalVariation = List.copyOf(principalVariation);
+    }
+
+    public Move getMove() {
+        return move;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * Gets the line of play expected after the move. It ends when the game is over, or at the depth limit of the
+     * search that produced it.
+     *
+     * @return The moves of both sides in order, starting with the analysed move.
+     */
+    public List<Move> getPrincipalVariation() {
+        return principalVariation;
+    }
+
+    /**
+     * Checks if the move wins against any defence.
+     *
+     * @return {@code true} if the move leads to a forced win.
+     */
+    public boolean isWin() {
+        return score > 0 && MnkSearch.isWinOrLoss(score);
+    }
+
+    /**
+     * Checks if the move loses against the best defence.
+     *
+     * @return {@code true} if the move leads to a forced loss.
+     */
+    public boolean isLoss() {
+        return score < 0 && MnkSearch.isWinOrLoss(score);
+    }
+
+    @Override
+    public String toString() {
+        return move + " " + score + " " + principalVariation;
+    }
+}
@@ -0,0 +1,61 @@
+/**
+ * The MoveScheduler class plays the delayed moves of the bots of one game. A move waits on a scheduler shared by
+ * every game, so no thread is created per move, and is then played through a dispatcher, the Event Dispatch Thread
+ * in the game. At most one move is pending at a time: scheduling a move replaces the pending one, and a move
+ * cancelled with {@link #cancel()} is never played, even if its delay has run out and it only waits for the dispatcher.
+ * It has no references to AWT or Swing, so it can be driven by any dispatcher, such as a queue in a test.
+ * It is not thread-safe; {@link #schedule(Runnable, long)} and {@link #cancel()} must be called on the thread
+ * the dispatcher runs the moves on.
+ */
+package model;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+public class MoveScheduler {
+
+    private final ScheduledExecutorService scheduler;
+    private final Executor dispatcher;
+    private ScheduledFuture<?> pendingMove;
+    private int generation;
+
+    /**
+     * Constructor for the MoveScheduler class.
+     *
+     * @param scheduler  The scheduler the moves wait on, shared by every game.
+     * @param dispatcher The executor that plays the moves once their delay has run out.
+     */
+    public MoveScheduler(ScheduledExecutorService scheduler, Executor dispatcher) {
+        this.scheduler = scheduler;
+        this.dispatcher = dispatcher;
+    }
+
+    /**
+     * Schedules a move, replacing the one still pending, if any.
+     *
+     * @param move        The move to play.
+     * @param delayMillis The delay before the move is played, in milliseconds.
+     */
+    public void schedule(Runnable move, long delayMillis) {
+        cancel();
+        int scheduled = generation;
+        pendingMove = scheduler.schedule(() -> dispatcher.execute(() -> {
+            if (scheduled == generation) {
+                move.run();
+            }
+        }), delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Cancels the pending move, if any. A move already handed to the dispatcher is dropped when its turn comes.
+     */
+    public void cancel() {
+        generation++;
+        if (pendingMove != null) {
+            pendingMove.cancel(false);
+            pendingMove = null;
+        }
+    }
+}
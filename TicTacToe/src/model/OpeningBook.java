@@ -0,0 +1,255 @@
+/**
+ * The OpeningBook class holds the best moves of the first plies of a game, computed offline by the engine,
+ * so that Hal plays its opening moves on large boards without searching.
+ * Positions are keyed by the Zobrist hash of {@code MnkBoard.fromStrings(board, k, mover, other)}, which already
+ * tells boards of different sizes apart, so one book can hold openings for several boards.
+ * The book also records the depth its moves were searched to, so that Hal only plays them at the tiers that search
+ * no deeper; a book solved to the end of the game has the depth {@link Difficulty#UNLIMITED} and serves every tier.
+ * The book is stored as a sorted binary file: a header of four ints (magic number, version, search depth,
+ * entry count) followed by one entry per position, a long key and a short cell index, in increasing key order.
+ * The file is memory-mapped and searched in place with a binary search, so loading it costs no parsing
+ * and no heap, however large it is.
+ */
+package model;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+public class OpeningBook {
+
+    /**
+     * The file the game looks for in its working directory.
+     */
+    public static final String DEFAULT_FILE = "openingbook.bin";
+
+    private static final int MAGIC = 0x54544F42; // "TTOB"
+    private static final int VERSION = 2;
+    private static final int HEADER_SIZE = 16;
+    private static final int ENTRY_SIZE = 10;
+    private static final OpeningBook EMPTY = new OpeningBook(ByteBuffer.allocate(0), 0, 0);
+
+    private static volatile OpeningBook defaultBook;
+
+    private final ByteBuffer entries;
+    private final int count;
+    private final int depth;
+
+    private OpeningBook(ByteBuffer entries, int count, int depth) {
+        this.entries = entries;
+        this.count = count;
+        this.depth = depth;
+    }
+
+    /**
+     * Maps a book file into memory.
+     *
+     * @param file The path of the book file.
+     * @return The book.
+     * @throws IOException if the file cannot be read or is not an opening book.
+     */
+    public static OpeningBook load(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE) {
+                throw new IOException("Not an opening book: " + file);
+            }
+
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            int depth = buffer.getInt(8);
+            int count = buffer.getInt(12);
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION || depth < 0
+                    || count < 0 || size != HEADER_SIZE + (long) count * ENTRY_SIZE) {
+                throw new IOException("Not an opening book: " + file);
+            }
+
+            // The mapping stays valid after the channel is closed.
+            buffer.position(HEADER_SIZE);
+            return new OpeningBook(buffer.slice(), count, depth);
+        }
+    }
+
+    /**
+     * Gets the book stored in {@link #DEFAULT_FILE}, mapping it on first use.
+     * Without such a file, or if it cannot be read, the book is empty.
+     *
+     * @return The default book.
+     */
+    public static OpeningBook getDefault() {
+        OpeningBook book = defaultBook;
+        if (book == null) {
+            synchronized (OpeningBook.class) {
+                book = defaultBook;
+                if (book == null) {
+                    book = loadIfPresent(Paths.get(DEFAULT_FILE));
+                    defaultBook = book;
+                }
+            }
+        }
+        return book;
+    }
+
+    private static OpeningBook loadIfPresent(Path file) {
+        if (!Files.exists(file)) {
+            return EMPTY;
+        }
+
+        try {
+            return load(file);
+        } catch (IOException e) {
+            System.out.println("Opening book not loaded: " + e.getMessage());
+            return EMPTY;
+        }
+    }
+
+    /**
+     * Looks up the book move of a position.
+     *
+     * @param key The Zobrist hash of the position, with the side to move as side 0.
+     * @return The index of the book cell, or -1 if the position is not in the book.
+     */
+    public int lookup(long key) {
+        int low = 0;
+        int high = count - 1;
+
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            long found = entries.getLong(middle * ENTRY_SIZE);
+
+            if (found < key) {
+                low = middle + 1;
+            } else if (found > key) {
+                high = middle - 1;
+            } else {
+                return entries.getShort(middle * ENTRY_SIZE + 8);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Gets the number of positions in the book.
+     *
+     * @return The entry count.
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Gets the depth the book moves were searched to: the shallowest depth any of them was searched to.
+     *
+     * @return The depth in plies, {@link Difficulty#UNLIMITED} if every move was solved, or 0 for the empty book.
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Computes the book moves of the first plies of a game, for a book playing either side.
+     * Every position where the book side is to move gets the move found by the search,
+     * and every reply of the other side is followed, up to the given number of plies.
+     * A search to the end of the game takes far too long on large boards, so the search should be given
+     * a depth limit or a time limit; the book then plays as well as that search, and the depth it reached is returned
+     * to be written with the book. A move proven to win or lose counts as solved, however shallow the search.
+     *
+     * @param width     The number of columns of the board.
+     * @param height    The number of rows of the board.
+     * @param winLength The number of stones in a row needed to win.
+     * @param plies     The number of plies from the empty board covered by the book.
+     * @param search    The search that finds the book moves, within its depth and time limits.
+     * @param entries   The map that receives the book move of each position, by key.
+     * @return The shallowest depth a new book move was searched to, or {@link Difficulty#UNLIMITED} if every one
+     *         was solved or none was searched.
+     */
+    public static int generate(int width, int height, int winLength, int plies, MnkSearch search,
+            Map<Long, Integer> entries) {
+        String[][] board = new String[height][width];
+        Set<Long> visited = new HashSet<>();
+
+        // The first player is X, as in the game.
+        int depth = expand(board, winLength, plies, 0, true, "X", "O", search, entries, visited);
+        visited.clear();
+        return Math.min(depth, expand(board, winLength, plies, 0, false, "X", "O", search, entries, visited));
+    }
+
+    private static int expand(String[][] board, int winLength, int plies, int ply, boolean bookToMove,
+            String mover, String other, MnkSearch search, Map<Long, Integer> entries, Set<Long> visited) {
+        MnkBoard position = MnkBoard.fromStrings(board, winLength, mover, other);
+        if (ply >= plies || position.isGameOver() || !visited.add(position.getHash())) {
+            return Difficulty.UNLIMITED;
+        }
+
+        int width = position.getWidth();
+        int depth = Difficulty.UNLIMITED;
+        if (bookToMove) {
+            Integer cell = entries.get(position.getHash());
+            if (cell == null) {
+                cell = search.findBestMove(position);
+                entries.put(position.getHash(), cell);
+                depth = searchedDepth(search, position);
+            }
+            board[cell / width][cell % width] = mover;
+            depth = Math.min(depth, expand(board, winLength, plies, ply + 1, false, other, mover, search, entries,
+                    visited));
+            board[cell / width][cell % width] = null;
+            return depth;
+        }
+
+        for (int cell = 0; cell < position.getCellCount(); cell++) {
+            if (position.isEmpty(cell)) {
+                board[cell / width][cell % width] = mover;
+                depth = Math.min(depth, expand(board, winLength, plies, ply + 1, true, other, mover, search, entries,
+                        visited));
+                board[cell / width][cell % width] = null;
+            }
+        }
+        return depth;
+    }
+
+    /**
+     * Gets the depth the last search of a position completed, or {@link Difficulty#UNLIMITED} if it solved it:
+     * if it reached the end of the game, or proved a win or a loss, which no deeper search changes.
+     */
+    private static int searchedDepth(MnkSearch search, MnkBoard position) {
+        int depth = search.getCompletedDepth();
+        if (depth >= position.getEmptyCount() || MnkSearch.isWinOrLoss(search.getBestScore())) {
+            return Difficulty.UNLIMITED;
+        }
+        return depth;
+    }
+
+    /**
+     * Writes book entries to a file in the format read by {@link #load(Path)}.
+     *
+     * @param file    The path of the book file.
+     * @param entries The book move of each position, by key.
+     * @param depth   The depth the book moves were searched to, as returned by {@link #generate}.
+     * @throws IOException if the file cannot be written.
+     */
+    public static void write(Path file, Map<Long, Integer> entries, int depth) throws IOException {
+        SortedMap<Long, Integer> sorted = new TreeMap<>(entries);
+
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            output.writeInt(MAGIC);
+            output.writeInt(VERSION);
+            output.writeInt(depth);
+            output.writeInt(sorted.size());
+            for (Map.Entry<Long, Integer> entry : sorted.entrySet()) {
+                output.writeLong(entry.getKey());
+                output.writeShort(entry.getValue());
+            }
+        }
+    }
+}
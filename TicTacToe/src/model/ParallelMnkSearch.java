@@ -0,0 +1,607 @@
+/**
+ * The ParallelMnkSearch class runs the alpha-beta search of {@link MnkSearch} on several threads of a
+ * {@link ForkJoinPool}, for boards too large to search well on one core.
+ * The tree is split at the root and at shallow inner nodes using the "young brothers wait" rule: the first move
+ * of a node is searched alone to get a good bound, then its remaining moves are searched in parallel.
+ * Siblings share the alpha bound of their node, so every improvement narrows the window of the ones still running,
+ * and a cutoff or a call to {@link #cancel()} stops every task below it. As in principal variation search, siblings
+ * are first searched with a null window and only searched again when they beat the bound. Deeper subtrees are searched serially
+ * by one {@link MnkSearch} per thread, which also counts that thread's nodes. The threads can share a
+ * {@link TranspositionTable} and an {@link EndgameTablebase}, and obey the same depth and time limits as
+ * {@link MnkSearch}: with a time limit the search deepens iteratively, and when time runs out every task stops
+ * and the best move of the deepest completed depth is played.
+ */
+package model;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class ParallelMnkSearch {
+
+    private static final int INFINITY = Integer.MAX_VALUE;
+    private static final int MAX_SPLIT_PLY = 3;
+    private static final int MIN_SPLIT_EMPTY = 6;
+    private static final int ASPIRATION_WINDOW = 256;
+    private static final int NO_CELL = MnkBoard.MAX_CELLS;
+
+    private final ForkJoinPool pool;
+    private final TranspositionTable table;
+    private volatile EndgameTablebase tablebase;
+    private final Map<Thread, MnkSearch> workers = new ConcurrentHashMap<>();
+    private volatile SplitPoint root;
+    private volatile boolean cancelled;
+    private volatile boolean timedOut;
+    private volatile int depthLimit = Difficulty.UNLIMITED;
+    private volatile int horizon = Difficulty.UNLIMITED;
+    private volatile boolean orderingHeuristics = true;
+    private int completedDepth;
+    private volatile long timeLimitMillis;
+    private volatile long deadline;
+    private int bestScore;
+    private long elapsedNanos;
+
+    /**
+     * Constructor for the ParallelMnkSearch class.
+     *
+     * @param pool The pool whose threads run the search. Its parallelism sets the number of threads used.
+     */
+    public ParallelMnkSearch(ForkJoinPool pool) {
+        this(pool, null);
+    }
+
+    /**
+     * Constructor for the ParallelMnkSearch class with a transposition table shared by all threads.
+     *
+     * @param pool  The pool whose threads run the search. Its parallelism sets the number of threads used.
+     * @param table The transposition table to read and fill, or null to search without one.
+     */
+    public ParallelMnkSearch(ForkJoinPool pool, TranspositionTable table) {
+        this.pool = pool;
+        this.table = table;
+    }
+
+    /**
+     * Finds the best move for the side to move. The result is the same as the one of
+     * {@link MnkSearch#findBestMove(MnkBoard)}: among moves with the same score, the lowest cell index wins.
+     * With a time limit the search deepens iteratively as in {@link MnkSearch#findBestMove(MnkBoard)}.
+     *
+     * @param board The position to search. It is not modified.
+     * @return The index of the best cell, or -1 if no empty cell is left.
+     * @throws CancellationException if {@link #cancel()} was called before the search ended.
+     */
+    public int findBestMove(MnkBoard board) {
+        workers.clear();
+        timedOut = false;
+        deadline = timeLimitMillis > 0 ? MnkSearch.deadline(timeLimitMillis) : 0;
+
+        long start = System.nanoTime();
+        try {
+            if (deadline == 0) {
+                horizon = depthLimit;
+                completedDepth = Math.min(depthLimit, board.getEmptyCount());
+                return searchRoot(board, -1, -INFINITY, INFINITY);
+            }
+            return deepen(board);
+        } finally {
+            elapsedNanos = System.nanoTime() - start;
+        }
+    }
+
+    private int deepen(MnkBoard board) {
+        int bestCell = -1;
+        int score = 0;
+        int lastDepth = Math.min(depthLimit, board.getEmptyCount());
+        completedDepth = 0;
+
+        for (int depth = 1; depth <= lastDepth; depth++) {
+            horizon = depth == board.getEmptyCount() ? depthLimit : depth;
+            int cell = depth == 1
+                    ? searchRoot(board, bestCell, -INFINITY, INFINITY)
+                    : searchAspiration(board, bestCell, score);
+            if (timedOut && bestCell >= 0) {
+                break;
+            }
+
+            bestCell = cell;
+            score = bestScore;
+            if (timedOut) {
+                break;
+            }
+
+            completedDepth = depth;
+            if (MnkSearch.isWinOrLoss(score)) {
+                break;
+            }
+        }
+
+        if (bestCell < 0 && lastDepth > 0) {
+            int[] moves = new int[board.getCellCount()];
+            MnkSearch.orderMoves(board, moves);
+            bestCell = moves[0];
+            score = 0;
+        }
+        bestScore = score;
+        return bestCell;
+    }
+
+    private int searchAspiration(MnkBoard board, int firstCell, int guess) {
+        int beta = guess + ASPIRATION_WINDOW;
+        int cell = searchRoot(board, firstCell, guess - ASPIRATION_WINDOW, beta);
+
+        if (timedOut || (cell >= 0 && bestScore < beta)) {
+            return cell;
+        }
+        return searchRoot(board, firstCell, -INFINITY, INFINITY);
+    }
+
+    private int searchRoot(MnkBoard board, int firstCell, int alpha, int beta) {
+        root = new SplitPoint(null, -INFINITY, INFINITY);
+        if (cancelled) {
+            root.cut = true;
+        }
+        return pool.invoke(new RootTask(new MnkBoard(board), firstCell, alpha, beta));
+    }
+
+    /**
+     * Stops the running search, and any later one. It is safe to call from any thread.
+     */
+    public void cancel() {
+        cancelled = true;
+        SplitPoint current = root;
+        if (current != null) {
+            current.cut = true;
+        }
+    }
+
+    /**
+     * Searches the root moves within a window. The best score and cell so far are shared by all root moves: a move
+     * on a lower cell than the current best only has to match its score to replace it, a move on a higher cell has
+     * to beat it. Ties therefore go to the lowest cell, whatever order the threads finish in.
+     * If no move scores above alpha, no cell is returned; once a move reaches beta, the other moves are skipped.
+     */
+    @SuppressWarnings("serial")
+    private final class RootTask extends RecursiveTask<Integer> {
+
+        private final MnkBoard board;
+        private final int firstCell;
+        private final int alpha;
+        private final int beta;
+
+        private RootTask(MnkBoard board, int firstCell, int alpha, int beta) {
+            this.board = board;
+            this.firstCell = firstCell;
+            this.alpha = alpha;
+            this.beta = beta;
+        }
+
+        @Override
+        protected Integer compute() {
+            int[] moves = new int[board.getCellCount()];
+            int count = MnkSearch.orderMoves(board, moves);
+            MnkSearch.moveToFront(moves, count, firstCell);
+            bestScore = -INFINITY;
+            if (count == 0) {
+                return -1;
+            }
+
+            AtomicLong best = new AtomicLong(pack(alpha, NO_CELL));
+            try {
+                MnkBoard child = new MnkBoard(board);
+                child.play(moves[0]);
+                int score = -search(child, 1, -beta, -alpha, root);
+                if (score > alpha) {
+                    best.set(pack(score, moves[0]));
+                }
+            } catch (CancellationException e) {
+                if (cancelled || !checkTime()) {
+                    throw e;
+                }
+                return -1;
+            }
+
+            if ((int) (best.get() >> 32) < beta) {
+                List<ForkJoinTask<Integer>> tasks = new ArrayList<>();
+                for (int i = 1; i < count; i++) {
+                    MnkBoard child = new MnkBoard(board);
+                    child.play(moves[i]);
+                    tasks.add(new RootMoveTask(child, moves[i], best, beta));
+                }
+                forkAndJoin(tasks);
+            }
+
+            if (cancelled || (root.cut && !timedOut)) {
+                throw new CancellationException("Search cancelled");
+            }
+
+            int cell = MnkBoard.MAX_CELLS - (int) best.get();
+            if (cell == NO_CELL) {
+                return -1;
+            }
+            bestScore = (int) (best.get() >> 32);
+            return cell;
+        }
+    }
+
+    /**
+     * Searches one root move against the best root move found so far.
+     */
+    @SuppressWarnings("serial")
+    private final class RootMoveTask extends RecursiveTask<Integer> {
+
+        private final MnkBoard child;
+        private final int cell;
+        private final AtomicLong best;
+        private final int beta;
+
+        private RootMoveTask(MnkBoard child, int cell, AtomicLong best, int beta) {
+            this.child = child;
+            this.cell = cell;
+            this.best = best;
+            this.beta = beta;
+        }
+
+        @Override
+        protected Integer compute() {
+            long current = best.get();
+            int bestCell = MnkBoard.MAX_CELLS - (int) current;
+            int alpha = (int) (current >> 32);
+            if (bestCell != NO_CELL && cell < bestCell) {
+                alpha--;
+            }
+            if (alpha >= beta) {
+                return -INFINITY;
+            }
+
+            try {
+                int score;
+                if (bestCell == NO_CELL) {
+                    score = -search(child, 1, -beta, -alpha, root);
+                } else {
+                    score = -search(child, 1, -alpha - 1, -alpha, root);
+                    if (score > alpha && score < beta) {
+                        score = -search(child, 1, -beta, -alpha, root);
+                    }
+                }
+                if (score > alpha) {
+                    best.accumulateAndGet(pack(score, cell), Math::max);
+                }
+                return score;
+            } catch (CancellationException e) {
+                // The search was cancelled or ran out of time: only the root moves already finished count.
+                checkTime();
+                return -INFINITY;
+            }
+        }
+    }
+
+    /**
+     * Packs a score and a cell so that a larger value means a higher score or, for equal scores, a lower cell.
+     */
+    private static long pack(int score, int cell) {
+        return ((long) score << 32) | (MnkBoard.MAX_CELLS - cell);
+    }
+
+    /**
+     * Searches one move of a split point with a null window at the latest alpha bound shared by its siblings,
+     * and again with the full window if it beats that bound.
+     */
+    @SuppressWarnings("serial")
+    private final class MoveTask extends RecursiveTask<Integer> {
+
+        private final MnkBoard child;
+        private final int ply;
+        private final int beta;
+        private final SplitPoint splitPoint;
+
+        private MoveTask(MnkBoard child, int ply, int beta, SplitPoint splitPoint) {
+            this.child = child;
+            this.ply = ply;
+            this.beta = beta;
+            this.splitPoint = splitPoint;
+        }
+
+        @Override
+        protected Integer compute() {
+            int alpha = splitPoint.alpha.get();
+            if (alpha >= beta) {
+                return -INFINITY;
+            }
+
+            try {
+                int score = -search(child, ply, -alpha - 1, -alpha, splitPoint);
+                int bound = Math.max(alpha, splitPoint.alpha.get());
+                if (bound >= beta) {
+                    // A sibling reached beta meanwhile: the split point is refuted, whatever this move scores.
+                    return score;
+                }
+                if (score > alpha && score < beta) {
+                    // The move beat the bound it was tried against: search it again for its exact score,
+                    // against the bound as its siblings have raised it since.
+                    score = -search(child, ply, -beta, -bound, splitPoint);
+                }
+                splitPoint.raise(score);
+                return score;
+            } catch (CancellationException e) {
+                // A sibling already refuted the split point, whose own result is what counts,
+                // or the time ran out, which stops every task.
+                checkTime();
+                return -INFINITY;
+            }
+        }
+    }
+
+    /**
+     * Scores a position from the point of view of the side to move, splitting the work when the node is
+     * shallow and has enough empty cells left.
+     */
+    private int search(MnkBoard board, int ply, int alpha, int beta, SplitPoint parent) {
+        MnkSearch worker = worker();
+        if (ply >= MAX_SPLIT_PLY || ply >= horizon || board.getEmptyCount() < MIN_SPLIT_EMPTY
+                || board.isGameOver()) {
+            return worker.search(board, ply, alpha, beta, parent);
+        }
+
+        worker.addNode();
+        if (checkTime() || parent.isStopped()) {
+            throw new CancellationException("Search cancelled");
+        }
+
+        // The thread's own killer moves and history order the split node, and learn from its cutoffs.
+        int[] moves = new int[board.getCellCount()];
+        worker.enterSplitNode(board, ply);
+        int count = worker.orderMoves(board, moves, ply);
+
+        board.play(moves[0]);
+        int best = -search(board, ply + 1, -beta, -alpha, parent);
+        board.undo();
+        if (best >= beta) {
+            worker.addCutoff(board, ply, moves[0]);
+            return best;
+        }
+        if (count == 1) {
+            return best;
+        }
+
+        SplitPoint splitPoint = new SplitPoint(parent, Math.max(alpha, best), beta);
+        List<ForkJoinTask<Integer>> tasks = new ArrayList<>();
+        for (int i = 1; i < count; i++) {
+            MnkBoard child = new MnkBoard(board);
+            child.play(moves[i]);
+            tasks.add(new MoveTask(child, ply + 1, beta, splitPoint));
+        }
+        forkAndJoin(tasks);
+
+        if (parent.isStopped()) {
+            throw new CancellationException("Search cancelled");
+        }
+
+        int cutoffCell = -1;
+        for (int i = 0; i < tasks.size(); i++) {
+            int score = tasks.get(i).join();
+            if (score >= beta && cutoffCell < 0) {
+                cutoffCell = moves[i + 1];
+            }
+            best = Math.max(best, score);
+        }
+        if (cutoffCell >= 0) {
+            worker.addCutoff(board, ply, cutoffCell);
+        }
+        return best;
+    }
+
+    /**
+     * Runs the tasks of a split point. They are forked in reverse order, so that a thread working through its own
+     * queue takes them in move order, best-ordered moves first, while idle threads steal from the other end.
+     */
+    private static void forkAndJoin(List<ForkJoinTask<Integer>> tasks) {
+        for (int i = tasks.size() - 1; i >= 0; i--) {
+            tasks.get(i).fork();
+        }
+        for (ForkJoinTask<Integer> task : tasks) {
+            task.join();
+        }
+    }
+
+    /**
+     * Checks whether the time limit has run out and, if so, cuts the root so that every task stops.
+     */
+    private boolean checkTime() {
+        long current = deadline;
+        if (current != 0 && System.nanoTime() - current > 0) {
+            timedOut = true;
+            root.cut = true;
+        }
+        return timedOut;
+    }
+
+    private MnkSearch worker() {
+        MnkSearch worker = workers.computeIfAbsent(Thread.currentThread(), thread -> {
+            MnkSearch search = new MnkSearch(table);
+            search.setTablebase(tablebase);
+            search.setDeadline(deadline);
+            search.setOrderingHeuristics(orderingHeuristics);
+            return search;
+        });
+        worker.setDepthLimit(horizon);
+        return worker;
+    }
+
+    /**
+     * A node whose moves are searched in parallel. The node's alpha bound is shared by all its moves,
+     * and the node is cut as soon as one move reaches beta.
+     */
+    static final class SplitPoint {
+
+        private final SplitPoint parent;
+        private final AtomicInteger alpha;
+        private final int beta;
+        private volatile boolean cut;
+
+        private SplitPoint(SplitPoint parent, int alpha, int beta) {
+            this.parent = parent;
+            this.alpha = new AtomicInteger(alpha);
+            this.beta = beta;
+        }
+
+        private void raise(int score) {
+            alpha.accumulateAndGet(score, Math::max);
+            if (score >= beta) {
+                cut = true;
+            }
+        }
+
+        /**
+         * Checks whether this split point or one of its ancestors was cut or cancelled.
+         *
+         * @return {@code true} if the work below this split point is no longer needed.
+         */
+        boolean isStopped() {
+            for (SplitPoint node = this; node != null; node = node.parent) {
+                if (node.cut) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Sets the tablebase probed by the threads.
+     *
+     * @param tablebase The tablebase of the board searched, or null to search without one.
+     */
+    public void setTablebase(EndgameTablebase tablebase) {
+        this.tablebase = tablebase;
+    }
+
+    /**
+     * Sets the number of plies searched before positions are scored by {@link MnkBoard#evaluate()}.
+     *
+     * @param depthLimit The depth limit in plies, or {@link Difficulty#UNLIMITED} to search to the end of the game.
+     */
+    public void setDepthLimit(int depthLimit) {
+        this.depthLimit = depthLimit;
+    }
+
+    /**
+     * Sets whether every thread also orders moves by the killer moves and history it gathered during the search,
+     * as {@link MnkSearch#setOrderingHeuristics(boolean)} does. They are used by default.
+     *
+     * @param orderingHeuristics {@code true} to order moves by killer moves and history.
+     */
+    public void setOrderingHeuristics(boolean orderingHeuristics) {
+        this.orderingHeuristics = orderingHeuristics;
+    }
+
+    /**
+     * Sets the longest time a call to {@link #findBestMove(MnkBoard)} may take.
+     *
+     * @param timeLimitMillis The time limit in milliseconds, or 0 for no limit.
+     */
+    public void setTimeLimit(long timeLimitMillis) {
+        this.timeLimitMillis = timeLimitMillis;
+    }
+
+    /**
+     * Gets the deepest depth the last search completed.
+     *
+     * @return The completed depth as returned by {@link MnkSearch#getCompletedDepth()}.
+     */
+    public int getCompletedDepth() {
+        return completedDepth;
+    }
+
+    /**
+     * Checks whether the last search stopped because its time limit ran out.
+     *
+     * @return {@code true} if the time limit cut the last search short.
+     */
+    public boolean isTimedOut() {
+        return timedOut;
+    }
+
+    /**
+     * Gets the score of the move returned by the last search, from the point of view of the side that moved.
+     *
+     * @return The score as returned by {@link MnkSearch#getBestScore()}.
+     */
+    public int getBestScore() {
+        return bestScore;
+    }
+
+    /**
+     * Gets the total number of positions visited by the last search on all threads.
+     *
+     * @return The node count of the last search.
+     */
+    public long getNodeCount() {
+        long total = 0;
+        for (MnkSearch worker : workers.values()) {
+            total += worker.getNodeCount();
+        }
+        return total;
+    }
+
+    /**
+     * Gets the statistics of the last search, with the counts of all threads added up.
+     *
+     * @return The statistics of the last search.
+     */
+    public SearchStats getStats() {
+        SearchStats total = SearchStats.NONE;
+        for (MnkSearch worker : workers.values()) {
+            total = total.plus(worker.getStats());
+        }
+        return new SearchStats(total.getNodes(), completedDepth, elapsedNanos, total.getCutoffs(),
+                total.getTableProbes(), total.getTableHits());
+    }
+
+    /**
+     * Gets the number of positions each thread visited during the last search.
+     *
+     * @return The node count of each thread, by thread name.
+     */
+    public Map<String, Long> getNodeCountPerThread() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (Map.Entry<Thread, MnkSearch> entry : workers.entrySet()) {
+            counts.put(entry.getKey().getName(), entry.getValue().getNodeCount());
+        }
+        return counts;
+    }
+
+    /**
+     * Gets the search speed of each thread during the last search.
+     *
+     * @return The nodes per second of each thread, by thread name.
+     */
+    public Map<String, Double> getNodesPerSecondPerThread() {
+        Map<String, Double> speeds = new LinkedHashMap<>();
+        double seconds = Math.max(elapsedNanos, 1) / 1e9;
+        for (Map.Entry<String, Long> entry : getNodeCountPerThread().entrySet()) {
+            speeds.put(entry.getKey(), entry.getValue() / seconds);
+        }
+        return speeds;
+    }
+
+    /**
+     * Gets the wall-clock time of the last search.
+     *
+     * @return The elapsed time in nanoseconds.
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+}
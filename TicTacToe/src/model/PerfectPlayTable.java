@@ -0,0 +1,90 @@
+/**
+ * The PerfectPlayTable class holds the solved 3x3 game: for every arrangement of X and O on the board
+ * it stores the set of optimal moves for the side to move.
+ * The table is built once, when the class is loaded, by running the {@link AiPlayer} search on every canonical
+ * position (see {@link Symmetry}) and copying the result to its other orientations. Every position keeps its own
+ * slot, so answering a move afterwards is a single array lookup.
+ */
+package model;
+
+import java.util.Arrays;
+
+public final class PerfectPlayTable {
+
+    /**
+     * The number of positions in the table: each of the 9 cells is empty, the mover's or the other side's.
+     */
+    public static final int SIZE = 19683;
+
+    private static final int[] TERNARY = new int[1 << BitBoard.CELLS];
+    private static final short[] OPTIMAL_MOVES = new short[SIZE];
+    private static final short UNSOLVED = -1;
+
+    static {
+        for (int mask = 1; mask <= BitBoard.FULL; mask++) {
+            int low = Integer.numberOfTrailingZeros(mask);
+            TERNARY[mask] = TERNARY[mask & (mask - 1)] + pow3(low);
+        }
+
+        // Only canonical positions are searched; every other orientation reuses their moves.
+        AiPlayer solver = new AiPlayer("X");
+        Arrays.fill(OPTIMAL_MOVES, UNSOLVED);
+        for (int mover = 0; mover <= BitBoard.FULL; mover++) {
+            for (int other = ~mover & BitBoard.FULL; ; other = (other - 1) & ~mover & BitBoard.FULL) {
+                int t = Symmetry.canonicalTransform(mover, other, 0);
+                int canonicalMover = Symmetry.transformMask(t, mover);
+                int canonicalOther = Symmetry.transformMask(t, other);
+                int canonical = index(canonicalMover, canonicalOther);
+
+                if (OPTIMAL_MOVES[canonical] == UNSOLVED) {
+                    OPTIMAL_MOVES[canonical] = (short) solver.optimalMoves(canonicalMover, canonicalOther,
+                            canonicalMover | canonicalOther);
+                }
+                OPTIMAL_MOVES[index(mover, other)] = (short) Symmetry.transformMask(Symmetry.inverse(t),
+                        OPTIMAL_MOVES[canonical]);
+
+                if (other == 0) {
+                    break;
+                }
+            }
+        }
+    }
+
+    private PerfectPlayTable() {
+    }
+
+    /**
+     * Gets all the optimal moves of a position.
+     *
+     * @param mover The cells owned by the side to move.
+     * @param other The cells owned by the other side.
+     * @return The mask of the optimal cells, or 0 if the board is full.
+     */
+    public static int optimalMoves(int mover, int other) {
+        return OPTIMAL_MOVES[index(mover, other)];
+    }
+
+    /**
+     * Gets the optimal move of a position that comes first in row-major order.
+     *
+     * @param mover The cells owned by the side to move.
+     * @param other The cells owned by the other side.
+     * @return The index of the cell (row * 3 + column), or -1 if the board is full.
+     */
+    public static int bestCell(int mover, int other) {
+        int moves = OPTIMAL_MOVES[index(mover, other)];
+        return moves == 0 ? -1 : Integer.numberOfTrailingZeros(moves);
+    }
+
+    private static int index(int mover, int other) {
+        return TERNARY[mover] + 2 * TERNARY[other];
+    }
+
+    private static int pow3(int exponent) {
+        int result = 1;
+        for (int i = 0; i < exponent; i++) {
+            result *= 3;
+        }
+        return result;
+    }
+}
@@ -1,31 +1,34 @@
 /**
- * The RandomPlayer class represents a player that makes random moves on a Tic-Tac-Toe board.
+ * The RandomPlayer class represents a player that makes random moves on a Tic-Tac-Toe board of any size.
  * It generates random row and column indices to play a move on the board.
+ * Each thread draws from its own random generator, so many random players can play at once without contention.
  */
 package model;
 
 import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 
 public class RandomPlayer {
     private int row;
     private int column;
-    private static Random rand = new Random();
 
     /**
-     * Generates a random move on the Tic-Tac-Toe board.
+     * Generates a random move on a board of any size.
      * The method randomly chooses a cell on the board and checks if it's empty.
      * If the cell is empty, the move is valid, and the row and column indices are updated accordingly.
      * If the chosen cell is not empty, it generates another random move until a valid move is found.
      *
-     * @param board The current state of the Tic-Tac-Toe board.
+     * @param board The current state of the board.
      */
     public void playRandomMove(String[][] board) {
+        int columns = board[0].length;
+        int cells = board.length * columns;
         boolean validInput = false;
         do {
-            int intRandom = rand.nextInt(9) + 1; // generate random values from 1-9
+            int intRandom = ThreadLocalRandom.current().nextInt(cells) + 1; // generate random values from 1 to the number of cells
 
-            row = (intRandom - 1) / 3; // calculate the row index
-            column = (intRandom - 1) % 3; // calculate the column index
+            row = (intRandom - 1) / columns; // calculate the row index
+            column = (intRandom - 1) % columns; // calculate the column index
 
             if (board[row][column] == null) {
                 validInput = true;
@@ -33,6 +36,18 @@ public class RandomPlayer {
         } while (!validInput);
     }
     
+    /**
+     * Picks a random empty cell of an m,n,k board, uniformly from the list of empty cells the board keeps,
+     * so a single draw is enough however full the board is. It is used for the random playouts of {@link MctsPlayer}.
+     *
+     * @param board  The current state of the board. It must have at least one empty cell.
+     * @param random The random generator of the calling thread.
+     * @return The index of an empty cell.
+     */
+    public static int randomEmptyCell(MnkBoard board, Random random) {
+        return board.getEmptyCell(random.nextInt(board.getEmptyCount()));
+    }
+
     /**
      * Gets the row index of the move.
      *
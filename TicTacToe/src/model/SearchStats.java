@@ -0,0 +1,100 @@
+/**
+ * The SearchStats class holds the figures of a search: the positions it visited, the depth it completed,
+ * the time it took, the beta cutoffs it made and how often it found a position in its transposition table.
+ * Statistics of several searches add up with {@link #plus(SearchStats)}, so the same class serves as running totals.
+ * It is immutable, so it can be read from any thread.
+ */
+package model;
+
+public final class SearchStats {
+
+    /**
+     * The statistics of no search at all, the starting point of running totals.
+     */
+    public static final SearchStats NONE = new SearchStats(0, 0, 0, 0, 0, 0);
+
+    private final long nodes;
+    private final int depth;
+    private final long elapsedNanos;
+    private final long cutoffs;
+    private final long tableProbes;
+    private final long tableHits;
+
+    /**
+     * Constructor for the SearchStats class.
+     *
+     * @param nodes        The number of positions visited.
+     * @param depth        The depth completed, in plies.
+     * @param elapsedNanos The wall-clock time taken, in nanoseconds.
+     * @param cutoffs      The number of positions left early because a move reached beta.
+     * @param tableProbes  The number of transposition table lookups.
+     * @param tableHits    The number of lookups that found the position.
+     */
+    public SearchStats(long nodes, int depth, long elapsedNanos, long cutoffs, long tableProbes, long tableHits) {
+        this.nodes = nodes;
+        this.depth = depth;
+        this.elapsedNanos = elapsedNanos;
+        this.cutoffs = cutoffs;
+        this.tableProbes = tableProbes;
+        this.tableHits = tableHits;
+    }
+
+    /**
+     * Adds up the statistics of two searches. Counts and times are summed; the depth is the deeper of the two.
+     *
+     * @param other The statistics to add.
+     * @return The combined statistics.
+     */
+    public SearchStats plus(SearchStats other) {
+        return new SearchStats(nodes + other.nodes, Math.max(depth, other.depth), elapsedNanos + other.elapsedNanos,
+                cutoffs + other.cutoffs, tableProbes + other.tableProbes, tableHits + other.tableHits);
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public long getCutoffs() {
+        return cutoffs;
+    }
+
+    public long getTableProbes() {
+        return tableProbes;
+    }
+
+    public long getTableHits() {
+        return tableHits;
+    }
+
+    /**
+     * Gets the share of transposition table lookups that found the position.
+     *
+     * @return The hit rate between 0 and 1, or 0 if the table was never probed.
+     */
+    public double getCacheHitRate() {
+        return tableProbes == 0 ? 0 : (double) tableHits / tableProbes;
+    }
+
+    /**
+     * Gets the search speed.
+     *
+     * @return The positions visited per second, or 0 if no time was measured.
+     */
+    public double getNodesPerSecond() {
+        return elapsedNanos == 0 ? 0 : nodes * 1e9 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d nodes, depth %d, %.1f ms, %d cutoffs, %.1f%% cache hits", nodes, depth,
+                elapsedNanos / 1e6, cutoffs, getCacheHitRate() * 100);
+    }
+}
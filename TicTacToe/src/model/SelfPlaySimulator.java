@@ -0,0 +1,175 @@
+/**
+ * The SelfPlaySimulator class plays batches of games between two {@link Bot}s on a {@link GameEngine}, with no
+ * graphical interface and no delay between moves, on as many threads as there are cores. It is meant for capacity
+ * testing and for checking statistically that a change to Hal makes it no weaker.
+ * The bots swap sides every game, so the first bot plays X in even games and O in odd ones, and the result is
+ * counted from its side. Each thread gets bots of its own from the given factories, and its own engine; the
+ * threads only share the counter of games still to play, which they take in batches.
+ * Bots that search, like Hal on large boards, may use the common fork-join pool on top of the simulator's threads.
+ */
+package model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+public class SelfPlaySimulator {
+
+    private static final int BATCH = 64;
+
+    private final Supplier<Bot> firstBot;
+    private final Supplier<Bot> secondBot;
+    private final int rows;
+    private final int columns;
+    private final int winLength;
+    private int threads;
+
+    /**
+     * Constructor for the SelfPlaySimulator class, for games of Tic-Tac-Toe.
+     *
+     * @param firstBot  The factory of the first bot, whose wins and losses are counted.
+     * @param secondBot The factory of its opponent.
+     */
+    public SelfPlaySimulator(Supplier<Bot> firstBot, Supplier<Bot> secondBot) {
+        this(firstBot, secondBot, 3, 3, 3);
+    }
+
+    /**
+     * Constructor for the SelfPlaySimulator class. It plays on one thread per available core.
+     *
+     * @param firstBot  The factory of the first bot, whose wins and losses are counted.
+     * @param secondBot The factory of its opponent.
+     * @param rows      The number of rows of the board.
+     * @param columns   The number of columns of the board.
+     * @param winLength The number of equal symbols in a row needed to win.
+     */
+    public SelfPlaySimulator(Supplier<Bot> firstBot, Supplier<Bot> secondBot, int rows, int columns, int winLength) {
+        this.firstBot = firstBot;
+        this.secondBot = secondBot;
+        this.rows = rows;
+        this.columns = columns;
+        this.winLength = winLength;
+        this.threads = Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Plays a number of games and waits for the last one to end.
+     *
+     * @param games The number of games to play.
+     * @return The wins, draws and losses of the first bot, the speed of the run and the latency of the moves.
+     * @throws IllegalStateException If a bot failed or played an illegal move, or the run was interrupted.
+     */
+    public SimulationResult run(long games) {
+        AtomicLong nextGame = new AtomicLong();
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads, task -> {
+            Thread thread = new Thread(task, "Simulator-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        long start = System.nanoTime();
+        try {
+            List<Future<Tally>> tallies = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                tallies.add(executor.submit(() -> play(nextGame, games)));
+            }
+
+            Tally total = new Tally();
+            for (Future<Tally> tally : tallies) {
+                total.add(join(tally));
+            }
+            return new SimulationResult(total.wins, total.draws, total.losses, total.moves,
+                    System.nanoTime() - start, total.latencies);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Plays games on the calling thread until every game of the run has been taken.
+     */
+    private Tally play(AtomicLong nextGame, long games) {
+        Bot first = firstBot.get();
+        Bot second = secondBot.get();
+        GameEngine engine = new GameEngine(rows, columns, winLength);
+        Tally tally = new Tally();
+
+        for (long batch = nextGame.getAndAdd(BATCH); batch < games; batch = nextGame.getAndAdd(BATCH)) {
+            for (long game = batch; game < Math.min(batch + BATCH, games); game++) {
+                int firstSide = (int) (game & 1);
+                engine.newGame();
+                while (!engine.status().isOver()) {
+                    Bot bot = engine.getMover() == firstSide ? first : second;
+                    long moveStart = System.nanoTime();
+                    Move move = bot.chooseMove(engine);
+                    tally.latencies.record(System.nanoTime() - moveStart);
+                    engine.play(move);
+                    tally.moves++;
+                }
+                tally.count(engine.status(), firstSide);
+            }
+        }
+        return tally;
+    }
+
+    private static Tally join(Future<Tally> tally) {
+        try {
+            return tally.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the games", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("A simulation thread failed", e.getCause());
+        }
+    }
+
+    /**
+     * Sets how many games are played at the same time.
+     *
+     * @param threads The number of threads, at least 1.
+     */
+    public void setThreads(int threads) {
+        this.threads = Math.max(1, threads);
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * The counts of the games played by one thread.
+     */
+    private static final class Tally {
+
+        private long wins;
+        private long draws;
+        private long losses;
+        private long moves;
+        private final LatencyHistogram latencies = new LatencyHistogram();
+
+        private void count(GameStatus status, int firstSide) {
+            if (status == GameStatus.DRAW) {
+                draws++;
+            } else if ((status == GameStatus.X_WINS) == (firstSide == 0)) {
+                wins++;
+            } else {
+                losses++;
+            }
+        }
+
+        private void add(Tally other) {
+            wins += other.wins;
+            draws += other.draws;
+            losses += other.losses;
+            moves += other.moves;
+            latencies.add(other.latencies);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+/**
+ * The SimulationResult class holds the outcome of a run of the {@link SelfPlaySimulator}: the wins, draws and
+ * losses of the first bot, the speed of the run, and the time the bots took to choose their moves.
+ * It is immutable, so it can be read from any thread.
+ */
+package model;
+
+public final class SimulationResult {
+
+    private final long wins;
+    private final long draws;
+    private final long losses;
+    private final long moves;
+    private final long elapsedNanos;
+    private final LatencyHistogram latencies;
+
+    /**
+     * Constructor for the SimulationResult class.
+     *
+     * @param wins         The number of games won by the first bot.
+     * @param draws        The number of drawn games.
+     * @param losses       The number of games lost by the first bot.
+     * @param moves        The number of moves played by both bots.
+     * @param elapsedNanos The wall-clock time of the run, in nanoseconds.
+     * @param latencies    The time each move took to choose. It is copied.
+     */
+    public SimulationResult(long wins, long draws, long losses, long moves, long elapsedNanos,
+            LatencyHistogram latencies) {
+        this.wins = wins;
+        this.draws = draws;
+        this.losses = losses;
+        this.moves = moves;
+        this.elapsedNanos = elapsedNanos;
+        this.latencies = new LatencyHistogram(latencies);
+    }
+
+    public long getGames() {
+        return wins + draws + losses;
+    }
+
+    public long getWins() {
+        return wins;
+    }
+
+    public long getDraws() {
+        return draws;
+    }
+
+    public long getLosses() {
+        return losses;
+    }
+
+    public long getMoves() {
+        return moves;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Gets the speed of the run, over all its threads.
+     *
+     * @return The games played per second, or 0 if no time was measured.
+     */
+    public double getGamesPerSecond() {
+        return elapsedNanos == 0 ? 0 : getGames() * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * Gets the time within which a share of the moves were chosen.
+     *
+     * @param percentile The share in percent, from 0 to 100; 50 is the median.
+     * @return The latency in nanoseconds, accurate to an eighth.
+     */
+    public long getMoveLatency(double percentile) {
+        return latencies.getPercentile(percentile);
+    }
+
+    /**
+     * Gets the longest time a bot took to choose a move.
+     *
+     * @return The latency in nanoseconds.
+     */
+    public long getMaxMoveLatency() {
+        return latencies.getMax();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d games: %d wins, %d draws, %d losses, %.0f games/s, move p50 %.1f us, p99 %.1f us",
+                getGames(), wins, draws, losses, getGamesPerSecond(), getMoveLatency(50) / 1e3,
+                getMoveLatency(99) / 1e3);
+    }
+}
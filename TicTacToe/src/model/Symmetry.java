@@ -0,0 +1,202 @@
+/**
+ * The Symmetry class maps 3x3 Tic-Tac-Toe positions to a canonical form under the 8 rotations and reflections
+ * of the board. Equivalent positions share the same canonical form, so caches and tables keyed on it need
+ * about an eighth of the entries. Moves found on a canonical board are mapped back with the inverse transform.
+ */
+package model;
+
+public final class Symmetry {
+
+    /**
+     * The number of transforms: 4 rotations, each with and without a reflection.
+     */
+    public static final int COUNT = 8;
+
+    /**
+     * The transform that leaves the board unchanged.
+     */
+    public static final int IDENTITY = 0;
+
+    private static final int[][] CELLS = new int[COUNT][BitBoard.CELLS];
+    private static final int[] INVERSE = new int[COUNT];
+    private static final short[][] MASKS = new short[COUNT][1 << BitBoard.CELLS];
+
+    static {
+        int last = BitBoard.SIZE - 1;
+        for (int row = 0; row < BitBoard.SIZE; row++) {
+            for (int col = 0; col < BitBoard.SIZE; col++) {
+                int cell = row * BitBoard.SIZE + col;
+                CELLS[0][cell] = cell;
+                CELLS[1][cell] = col * BitBoard.SIZE + (last - row);
+                CELLS[2][cell] = (last - row) * BitBoard.SIZE + (last - col);
+                CELLS[3][cell] = (last - col) * BitBoard.SIZE + row;
+                CELLS[4][cell] = row * BitBoard.SIZE + (last - col);
+                CELLS[5][cell] = (last - row) * BitBoard.SIZE + col;
+                CELLS[6][cell] = col * BitBoard.SIZE + row;
+                CELLS[7][cell] = (last - col) * BitBoard.SIZE + (last - row);
+            }
+        }
+
+        for (int t = 0; t < COUNT; t++) {
+            for (int u = 0; u < COUNT; u++) {
+                if (CELLS[u][CELLS[t][1]] == 1 && CELLS[u][CELLS[t][3]] == 3) {
+                    INVERSE[t] = u;
+                }
+            }
+
+            for (int mask = 1; mask <= BitBoard.FULL; mask++) {
+                int low = Integer.numberOfTrailingZeros(mask);
+                MASKS[t][mask] = (short) (MASKS[t][mask & (mask - 1)] | (1 << CELLS[t][low]));
+            }
+        }
+    }
+
+    private Symmetry() {
+    }
+
+    /**
+     * Applies a transform to a single cell.
+     *
+     * @param transform The transform (0-7).
+     * @param cell      The index of the cell (row * 3 + column).
+     * @return The index of the cell the given one is moved to.
+     */
+    public static int transformCell(int transform, int cell) {
+        return CELLS[transform][cell];
+    }
+
+    /**
+     * Applies a transform to every cell of a mask.
+     *
+     * @param transform The transform (0-7).
+     * @param mask      The cells to move.
+     * @return The mask of the moved cells.
+     */
+    public static int transformMask(int transform, int mask) {
+        return MASKS[transform][mask];
+    }
+
+    /**
+     * Gets the transform that undoes another one.
+     *
+     * @param transform The transform (0-7).
+     * @return The inverse transform.
+     */
+    public static int inverse(int transform) {
+        return INVERSE[transform];
+    }
+
+    /**
+     * Finds the transform that brings a position to its canonical form.
+     * The canonical form is the orientation with the smallest {@link #positionKey(int, int, int)}.
+     *
+     * @param mover   The cells owned by the side to move.
+     * @param other   The cells owned by the other side.
+     * @param blocked The occupied cells that belong to neither side.
+     * @return The transform to apply to the position.
+     */
+    public static int canonicalTransform(int mover, int other, int blocked) {
+        int best = IDENTITY;
+        long bestKey = positionKey(mover, other, blocked);
+
+        for (int t = 1; t < COUNT; t++) {
+            long key = positionKey(MASKS[t][mover], MASKS[t][other], MASKS[t][blocked]);
+            if (key < bestKey) {
+                bestKey = key;
+                best = t;
+            }
+        }
+
+        return best;
+    }
+
+    /**
+     * Gets the key of the canonical form of a position. All 8 orientations of a position share this key.
+     *
+     * @param mover   The cells owned by the side to move.
+     * @param other   The cells owned by the other side.
+     * @param blocked The occupied cells that belong to neither side.
+     * @return The canonical key of the position.
+     */
+    public static long canonicalKey(int mover, int other, int blocked) {
+        int t = canonicalTransform(mover, other, blocked);
+        return positionKey(MASKS[t][mover], MASKS[t][other], MASKS[t][blocked]);
+    }
+
+    /**
+     * Packs the three masks of a position into a single key.
+     *
+     * @param mover   The cells owned by the side to move.
+     * @param other   The cells owned by the other side.
+     * @param blocked The occupied cells that belong to neither side.
+     * @return The key of the position in its current orientation.
+     */
+    public static long positionKey(int mover, int other, int blocked) {
+        return mover | ((long) other << BitBoard.CELLS) | ((long) blocked << (2 * BitBoard.CELLS));
+    }
+
+    /**
+     * Maps a board of strings, such as the one returned by {@code GameBoard.getBoard()}, to its canonical form.
+     * Only the top-left 3x3 area of the board is examined.
+     *
+     * @param board The 2D array representing the Tic-Tac-Toe board.
+     * @return The canonical board together with the transform used to reach it.
+     */
+    public static Canonical canonicalize(String[][] board) {
+        int x = BitBoard.maskOf(board, "X");
+        int o = BitBoard.maskOf(board, "O");
+        int blocked = BitBoard.occupiedMask(board) & ~(x | o);
+        int transform = canonicalTransform(x, o, blocked);
+
+        String[][] canonical = new String[BitBoard.SIZE][BitBoard.SIZE];
+        for (int cell = 0; cell < BitBoard.CELLS; cell++) {
+            int target = CELLS[transform][cell];
+            canonical[target / BitBoard.SIZE][target % BitBoard.SIZE] = board[cell / BitBoard.SIZE][cell % BitBoard.SIZE];
+        }
+
+        return new Canonical(canonical, transform);
+    }
+
+    /**
+     * A board in canonical orientation, together with the transform that produced it from the original board.
+     */
+    public static final class Canonical {
+
+        private final String[][] board;
+        private final int transform;
+
+        private Canonical(String[][] board, int transform) {
+            this.board = board;
+            this.transform = transform;
+        }
+
+        /**
+         * Gets the board in canonical orientation.
+         *
+         * @return The canonical 3x3 board.
+         */
+        public String[][] getBoard() {
+            return board;
+        }
+
+        /**
+         * Gets the transform that was applied to the original board.
+         *
+         * @return The transform (0-7).
+         */
+        public int getTransform() {
+            return transform;
+        }
+
+        /**
+         * Maps a cell of the canonical board back to the original board.
+         *
+         * @param row    The row index on the canonical board.
+         * @param column The column index on the canonical board.
+         * @return The index of the matching cell on the original board (row * 3 + column).
+         */
+        public int toOriginalCell(int row, int column) {
+            return CELLS[INVERSE[transform]][row * BitBoard.SIZE + column];
+        }
+    }
+}
@@ -0,0 +1,325 @@
+/**
+ * The ThreatSpaceSearch class looks for forced wins on large m,n,k boards, such as the 15x15 board of Gomoku
+ * with k = 5, where a full-width search cannot see far enough. It only plays forcing moves: fours, which leave
+ * a line one stone short of k so that the other side must block it at once, and threes, which threaten to win by
+ * fours if the other side does not answer them. This is how Gomoku programs find wins many moves deep in
+ * milliseconds. The attacker tries fours before threes, and a search allowing fewer threes before one allowing
+ * more, so short and simple wins are found first.
+ * After a four the defender has a single reply. After a three every reply is tried, so a win found is a forced win
+ * and not a guess; most replies are refuted at once by replaying the fours the three threatened, and only those
+ * that touch them are searched. Positions where the attacker was found to have no win are kept in a
+ * {@link TranspositionTable}, since the same fours played in another order lead to them again.
+ * The search gives up after a number of positions, or once its time limit has passed, so that the caller can fall
+ * back to a normal search.
+ */
+package model;
+
+import java.util.Arrays;
+
+public class ThreatSpaceSearch {
+
+    /**
+     * The number of threes a win may use by default.
+     */
+    public static final int DEFAULT_THREE_LIMIT = 2;
+
+    /**
+     * The number of positions visited before giving up by default.
+     */
+    public static final long DEFAULT_NODE_LIMIT = 100_000;
+
+    private static final int TABLE_CAPACITY = 1 << 16;
+
+    private int threeLimit = DEFAULT_THREE_LIMIT;
+    private long nodeLimit = DEFAULT_NODE_LIMIT;
+    private long timeLimitMillis;
+    private long deadline;
+    private boolean stopped;
+    private long nodeCount;
+    private int winPlies;
+    private int[][] moveBuffers = new int[0][];
+    private int[] line = new int[0];
+    private int[] cells = new int[0];
+    private final TranspositionTable refuted = new TranspositionTable(TABLE_CAPACITY);
+
+    /**
+     * Looks for a forced win of the side to move made of fours and threes.
+     *
+     * @param board The position to search. It is played on during the search and restored afterwards.
+     * @return The first move of a forced win, or -1 if none was found within the limits.
+     */
+    public int findWin(MnkBoard board) {
+        nodeCount = 0;
+        winPlies = 0;
+        stopped = false;
+        deadline = timeLimitMillis > 0 ? MnkSearch.deadline(timeLimitMillis) : 0;
+        if (board.isGameOver()) {
+            return -1;
+        }
+
+        ensureBuffers(board);
+        refuted.clear();
+        for (int threes = 0; threes <= threeLimit && !stopped; threes++) {
+            int plies = attack(board, 0, threes);
+            if (plies > 0) {
+                winPlies = plies;
+                return line[0];
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Searches the forcing moves of the side to move.
+     *
+     * @param board  The position.
+     * @param ply    The distance from the root of the search.
+     * @param threes The number of threes the attacker may still play.
+     * @return The number of plies up to the win against the longest defence, or 0 if no win was found.
+     */
+    private int attack(MnkBoard board, int ply, int threes) {
+        if (isStopRequested()) {
+            return 0;
+        }
+
+        // A position refuted with as many threes or more is refuted with these.
+        long entry = refuted.probe(board.getHash());
+        if (entry != TranspositionTable.MISS && TranspositionTable.depth(entry) >= threes) {
+            return 0;
+        }
+
+        int attacker = board.getSideToMove();
+        int winLength = board.getWinLength();
+        if (board.getThreatCount(attacker) > 0) {
+            board.threatCells(attacker, winLength - 1, cells);
+            line[ply] = cells[0];
+            return 1;
+        }
+
+        // A four of the defender has to be blocked, and the block has to be forcing too.
+        int[] moves = moveBuffers[ply];
+        int count = 0;
+        if (board.getThreatCount(1 - attacker) > 0) {
+            count = board.threatCells(1 - attacker, winLength - 1, moves);
+            if (count > 1) {
+                return 0;
+            }
+        } else {
+            int fewest = Math.max(0, threes > 0 ? winLength - 3 : winLength - 2);
+            count = board.threatCells(attacker, fewest, moves);
+        }
+
+        // Fours first: they leave the defender a single reply, so they cost far less to search than threes.
+        for (int round = 0; round < (threes > 0 ? 2 : 1); round++) {
+            for (int i = 0; i < count; i++) {
+                int cell = moves[i];
+                board.play(cell);
+                boolean four = board.getThreatCount(attacker) > 0;
+                int plies = 0;
+                if (four && round == 0) {
+                    plies = defendFour(board, ply + 1, threes);
+                } else if (!four && round == 1) {
+                    plies = defendThree(board, ply + 1, threes - 1);
+                }
+                board.undo();
+
+                if (plies > 0) {
+                    line[ply] = cell;
+                    return plies + 1;
+                }
+                if (stopped) {
+                    return 0;
+                }
+            }
+        }
+
+        refuted.store(board.getHash(), 0, TranspositionTable.UPPER, threes);
+        return 0;
+    }
+
+    /**
+     * Answers a four: the defender blocks it, unless it can win at once or the attacker has made two fours.
+     */
+    private int defendFour(MnkBoard board, int ply, int threes) {
+        int defender = board.getSideToMove();
+        if (board.getThreatCount(defender) > 0) {
+            return 0;
+        }
+
+        int wins = board.threatCells(1 - defender, board.getWinLength() - 1, cells);
+        if (wins > 1) {
+            line[ply] = cells[0];
+            line[ply + 1] = cells[1];
+            return 2;
+        }
+
+        int block = cells[0];
+        board.play(block);
+        int plies = attack(board, ply + 1, threes);
+        board.undo();
+
+        if (plies == 0) {
+            return 0;
+        }
+        line[ply] = block;
+        return plies + 1;
+    }
+
+    /**
+     * Answers a move that made no four. It is a three only if the attacker, moving again, would win by fours;
+     * then every reply of the defender is tried, and the attacker has to win after each of them.
+     */
+    private int defendThree(MnkBoard board, int ply, int threes) {
+        if (board.getThreatCount(board.getSideToMove()) > 0) {
+            return 0;
+        }
+
+        board.pass();
+        int threatPlies = attack(board, ply, 0);
+        board.pass();
+        if (threatPlies == 0) {
+            return 0;
+        }
+
+        int[] threat = Arrays.copyOfRange(line, ply, ply + threatPlies);
+        int longest = 0;
+        for (int cell = 0; cell < board.getCellCount(); cell++) {
+            if (!board.isEmpty(cell)) {
+                continue;
+            }
+
+            board.play(cell);
+            int plies = replay(board, threat) ? threatPlies : attack(board, ply + 1, threes);
+            board.undo();
+
+            if (plies == 0) {
+                return 0;
+            }
+            longest = Math.max(longest, plies);
+        }
+        return longest + 1;
+    }
+
+    /**
+     * Plays a win by fours found before a reply of the defender, checking that each four still forces the block
+     * it forced then. It gives up, rather than searching, as soon as the reply changed anything.
+     *
+     * @param board  The position after the reply, with the attacker to move.
+     * @param threat The moves of the win by fours, the attacker's and the defender's in turn.
+     * @return {@code true} if the win still works.
+     */
+    private boolean replay(MnkBoard board, int[] threat) {
+        int start = board.getMoveCount();
+        int attacker = board.getSideToMove();
+        boolean won = false;
+
+        for (int i = 0; i < threat.length; i += 2) {
+            if (board.getThreatCount(1 - attacker) > 0 || !board.isEmpty(threat[i])) {
+                break;
+            }
+            board.play(threat[i]);
+            if (board.getWinner() == attacker) {
+                won = true;
+                break;
+            }
+
+            if (board.getThreatCount(attacker) == 0 || board.getThreatCount(1 - attacker) > 0) {
+                break;
+            }
+            // A single four can only be blocked where it was blocked before; two lines may still share a cell.
+            if (board.getThreatCount(attacker) > 1
+                    && board.threatCells(attacker, board.getWinLength() - 1, cells) > 1) {
+                won = true;
+                break;
+            }
+            int block = i + 1 < threat.length ? threat[i + 1] : -1;
+            if (block < 0 || !board.isEmpty(block) || !board.isWinningMove(block, attacker)) {
+                break;
+            }
+            board.play(block);
+        }
+
+        while (board.getMoveCount() > start) {
+            board.undo();
+        }
+        return won;
+    }
+
+    /**
+     * Counts a position, and stops the search for good once the node limit or the time limit is passed.
+     */
+    private boolean isStopRequested() {
+        if (++nodeCount > nodeLimit || (deadline != 0 && System.nanoTime() - deadline > 0)) {
+            stopped = true;
+        }
+        return stopped;
+    }
+
+    private void ensureBuffers(MnkBoard board) {
+        int plies = board.getEmptyCount() + 1;
+        if (moveBuffers.length < plies || cells.length < board.getCellCount()) {
+            moveBuffers = new int[plies][board.getCellCount()];
+            line = new int[plies];
+            cells = new int[board.getCellCount()];
+        }
+    }
+
+    /**
+     * Sets how many threes a win may use. Each three lets the defender reply anywhere, so every extra three
+     * multiplies the work; 0 looks for wins by fours only.
+     *
+     * @param threeLimit The number of threes.
+     */
+    public void setThreeLimit(int threeLimit) {
+        this.threeLimit = threeLimit;
+    }
+
+    public int getThreeLimit() {
+        return threeLimit;
+    }
+
+    /**
+     * Sets how many positions a search may visit before it gives up.
+     *
+     * @param nodeLimit The number of positions.
+     */
+    public void setNodeLimit(long nodeLimit) {
+        this.nodeLimit = nodeLimit;
+    }
+
+    public long getNodeLimit() {
+        return nodeLimit;
+    }
+
+    /**
+     * Sets the longest time a search may take before it gives up.
+     *
+     * @param timeLimitMillis The time limit in milliseconds, or 0 for no limit.
+     */
+    public void setTimeLimit(long timeLimitMillis) {
+        this.timeLimitMillis = timeLimitMillis;
+    }
+
+    public long getTimeLimit() {
+        return timeLimitMillis;
+    }
+
+    /**
+     * Gets the number of positions visited by the last call to {@link #findWin(MnkBoard)}.
+     *
+     * @return The node count of the last search.
+     */
+    public long getNodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * Gets the length of the win found by the last call to {@link #findWin(MnkBoard)}: the number of moves of both
+     * sides up to the winning one, against the longest defence the search tried.
+     *
+     * @return The number of plies, or 0 if no win was found.
+     */
+    public int getWinPlies() {
+        return winPlies;
+    }
+}
@@ -0,0 +1,227 @@
+/**
+ * The TranspositionTable class caches search results by position so that positions reached through
+ * different move orders, in the same search or in later ones, are solved only once.
+ * It is a fixed-size, always-replace hash table stored in two parallel long arrays. Each slot keeps the key
+ * XOR-ed with its data, so a slot that was half-written by another thread simply fails the key check
+ * instead of returning a wrong value, and no locking is needed when several searches share one table.
+ */
+package model;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+public class TranspositionTable {
+
+    /**
+     * The entry returned by {@link #probe(long)} when the position is not in the table.
+     */
+    public static final long MISS = 0L;
+
+    /**
+     * The stored score is the exact score of the position.
+     */
+    public static final int EXACT = 1;
+
+    /**
+     * The stored score is a lower bound: the search failed high with at least this score.
+     */
+    public static final int LOWER = 2;
+
+    /**
+     * The stored score is an upper bound: the search failed low with at most this score.
+     */
+    public static final int UPPER = 3;
+
+    /**
+     * The depth of an entry stored by a search that was not cut off at any depth, which is enough for any search.
+     */
+    public static final int FULL_DEPTH = 0xFFF;
+
+    private final long[] keys;
+    private final long[] data;
+    private final int mask;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Constructor for the TranspositionTable class.
+     *
+     * @param capacity The number of slots, rounded up to the next power of two.
+     */
+    public TranspositionTable(int capacity) {
+        int size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+        this.keys = new long[size];
+        this.data = new long[size];
+        this.mask = size - 1;
+    }
+
+    /**
+     * Looks up the entry stored for a position.
+     * The score, bound and depth of a found entry are read with {@link #score(long)}, {@link #bound(long)}
+     * and {@link #depth(long)}.
+     *
+     * @param key The key of the position.
+     * @return The stored entry, or {@link #MISS} if the position is not in the table.
+     */
+    public long probe(long key) {
+        int index = index(key);
+        long entry = data[index];
+
+        if (entry != MISS && (keys[index] ^ entry) == key) {
+            hits.increment();
+            return entry;
+        }
+
+        misses.increment();
+        return MISS;
+    }
+
+    /**
+     * Stores the score of a position found by a search that was not cut off at any depth,
+     * replacing whatever the slot held before.
+     *
+     * @param key   The key of the position.
+     * @param score The score to store.
+     * @param bound The kind of score: {@link #EXACT}, {@link #LOWER} or {@link #UPPER}.
+     */
+    public void store(long key, int score, int bound) {
+        store(key, score, bound, FULL_DEPTH);
+    }
+
+    /**
+     * Stores the score of a position, replacing whatever the slot held before.
+     * A depth-limited search may only use an entry whose depth is at least the depth it still has to search.
+     *
+     * @param key   The key of the position.
+     * @param score The score to store.
+     * @param bound The kind of score: {@link #EXACT}, {@link #LOWER} or {@link #UPPER}.
+     * @param depth The number of plies searched below the position, at most {@link #FULL_DEPTH}.
+     */
+    public void store(long key, int score, int bound, int depth) {
+        int index = index(key);
+        // The bound is never 0, so a used slot never looks like an empty one.
+        long entry = ((long) depth << 34) | ((long) bound << 32) | (score & 0xFFFFFFFFL);
+        data[index] = entry;
+        keys[index] = key ^ entry;
+    }
+
+    /**
+     * Gets the score of an entry returned by {@link #probe(long)}.
+     *
+     * @param entry The entry.
+     * @return The stored score.
+     */
+    public static int score(long entry) {
+        return (int) entry;
+    }
+
+    /**
+     * Gets the bound of an entry returned by {@link #probe(long)}.
+     *
+     * @param entry The entry.
+     * @return {@link #EXACT}, {@link #LOWER} or {@link #UPPER}.
+     */
+    public static int bound(long entry) {
+        return (int) (entry >>> 32) & 0x3;
+    }
+
+    /**
+     * Gets the depth of an entry returned by {@link #probe(long)}.
+     *
+     * @param entry The entry.
+     * @return The number of plies searched below the position, or {@link #FULL_DEPTH}.
+     */
+    public static int depth(long entry) {
+        return (int) (entry >>> 34) & FULL_DEPTH;
+    }
+
+    /**
+     * Converts a win or loss score counted from the root of a search into one counted from the position itself,
+     * so that a cached win or loss keeps its distance whatever depth the position is reached at later.
+     * Draws and other scores of 0 are left as they are.
+     *
+     * @param score The score counted from the root.
+     * @param ply   The distance of the position from the root.
+     * @return The score to store.
+     */
+    public static int toStored(int score, int ply) {
+        if (score > 0) {
+            return score + ply;
+        }
+        if (score < 0) {
+            return score - ply;
+        }
+        return 0;
+    }
+
+    /**
+     * Converts a score stored with {@link #toStored(int, int)} back into one counted from the root of a search.
+     *
+     * @param score The stored score.
+     * @param ply   The distance of the position from the root.
+     * @return The score counted from the root.
+     */
+    public static int fromStored(int score, int ply) {
+        if (score > 0) {
+            return score - ply;
+        }
+        if (score < 0) {
+            return score + ply;
+        }
+        return 0;
+    }
+
+    /**
+     * Removes all the stored positions and resets the hit and miss counters.
+     */
+    public void clear() {
+        Arrays.fill(keys, 0);
+        Arrays.fill(data, 0);
+        hits.reset();
+        misses.reset();
+    }
+
+    /**
+     * Gets the number of lookups that found their position.
+     *
+     * @return The number of hits since the table was created or cleared.
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Gets the number of lookups that did not find their position.
+     *
+     * @return The number of misses since the table was created or cleared.
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Gets the share of lookups that found their position.
+     *
+     * @return The hit rate between 0 and 1, or 0 if no lookup was made.
+     */
+    public double getHitRate() {
+        long h = getHits();
+        long total = h + getMisses();
+        return total == 0 ? 0 : (double) h / total;
+    }
+
+    /**
+     * Gets the number of slots of the table.
+     *
+     * @return The capacity of the table.
+     */
+    public int getCapacity() {
+        return keys.length;
+    }
+
+    private int index(long key) {
+        // Fibonacci hashing spreads the structured position keys over the whole table.
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+}
@@ -0,0 +1,101 @@
+/**
+ * The Zobrist class holds the random keys used to hash positions of an m,n,k-game into 64 bits.
+ * The hash of a position is the XOR of a key for the board dimensions, one key per occupied cell
+ * (depending on whether it holds a stone of side 0, a stone of side 1 or a foreign symbol),
+ * and one more key when side 1 is to move. Playing or taking back a move therefore updates the hash
+ * with one or two XORs, and the same position reached in any order gets the same hash.
+ * The keys come from a fixed seed, so hashes are the same in every run and can be stored in files.
+ */
+package model;
+
+import java.util.SplittableRandom;
+
+public final class Zobrist {
+
+    /**
+     * The side index of a cell holding a symbol that belongs to neither side.
+     */
+    public static final int BLOCKED = 2;
+
+    private static final long SEED = 0x5EEDC0DE1A2B3C4DL;
+    private static final long[][] STONES = new long[3][MnkBoard.MAX_CELLS];
+    private static final long SIDE_TO_MOVE;
+
+    static {
+        SplittableRandom random = new SplittableRandom(SEED);
+        for (long[] keys : STONES) {
+            for (int cell = 0; cell < keys.length; cell++) {
+                keys[cell] = random.nextLong();
+            }
+        }
+        SIDE_TO_MOVE = random.nextLong();
+    }
+
+    private Zobrist() {
+    }
+
+    /**
+     * Gets the key of a cell holding a stone or a foreign symbol.
+     *
+     * @param side The side owning the cell (0 or 1), or {@link #BLOCKED}.
+     * @param cell The index of the cell (row * width + column).
+     * @return The key to XOR into the hash.
+     */
+    public static long stone(int side, int cell) {
+        return STONES[side][cell];
+    }
+
+    /**
+     * Gets the key that is part of the hash while side 1 is to move.
+     *
+     * @return The key to XOR into the hash when the turn passes.
+     */
+    public static long sideToMove() {
+        return SIDE_TO_MOVE;
+    }
+
+    /**
+     * Gets the hash of the empty board, which differs for every width, height and win length,
+     * so that positions of different games do not share hashes.
+     *
+     * @param width     The number of columns of the board.
+     * @param height    The number of rows of the board.
+     * @param winLength The number of stones in a row needed to win.
+     * @return The hash of the empty board.
+     */
+    public static long empty(int width, int height, int winLength) {
+        long z = SEED + 0x9E3779B97F4A7C15L * (((long) width << 40) | ((long) height << 20) | winLength);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Computes the hash of a board given as a 2D array of strings from scratch.
+     * It equals the hash of {@code MnkBoard.fromStrings(board, winLength, firstSymbol, secondSymbol)}
+     * once the given side is to move.
+     *
+     * @param board        The 2D array representing the board.
+     * @param winLength    The number of symbols in a row needed to win.
+     * @param firstSymbol  The symbol of side 0.
+     * @param secondSymbol The symbol of side 1.
+     * @param sideToMove   The side to move (0 or 1).
+     * @return The hash of the position.
+     */
+    public static long hash(String[][] board, int winLength, String firstSymbol, String secondSymbol, int sideToMove) {
+        int width = board[0].length;
+        long hash = empty(width, board.length, winLength);
+
+        for (int row = 0; row < board.length; row++) {
+            for (int col = 0; col < board[row].length; col++) {
+                String symbol = board[row][col];
+                if (symbol != null) {
+                    int side = symbol.equals(firstSymbol) ? 0 : symbol.equals(secondSymbol) ? 1 : BLOCKED;
+                    hash ^= stone(side, row * width + col);
+                }
+            }
+        }
+
+        return sideToMove == 1 ? hash ^ SIDE_TO_MOVE : hash;
+    }
+}
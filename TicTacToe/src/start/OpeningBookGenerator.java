@@ -0,0 +1,64 @@
+package start;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import model.Difficulty;
+import model.MnkSearch;
+import model.OpeningBook;
+import model.TranspositionTable;
+
+/**
+ * Builds the opening book read by the game, by searching the first plies of one or more board sizes.
+ * Each book move is searched to a depth limit, by default that of {@link Difficulty#HARD}, or to the end of the game
+ * with the depth {@code unlimited}, and for at most {@value #POSITION_TIME_LIMIT_MILLIS} ms, so a book of a large
+ * board is built in bounded time. The book records the shallowest depth any of its moves was searched to, and Hal only
+ * plays it at the tiers that search no deeper: a book solved to the end of the game also serves
+ * {@link Difficulty#PERFECT}. Usage: {@code OpeningBookGenerator [file] [WIDTHxHEIGHTxK:PLIES[:DEPTH] ...]},
+ * for example {@code OpeningBookGenerator openingbook.bin 4x4x3:4:unlimited 4x4x4:2:12}.
+ */
+public class OpeningBookGenerator {
+
+	private static final long POSITION_TIME_LIMIT_MILLIS = 10_000;
+
+	public static void main(String[] args) throws IOException {
+		String file = args.length > 0 ? args[0] : OpeningBook.DEFAULT_FILE;
+		String[] specs = args.length > 1 ? Arrays.copyOfRange(args, 1, args.length)
+				: new String[] { "4x4x3:4:unlimited" };
+
+		MnkSearch search = new MnkSearch(new TranspositionTable(1 << 22));
+		search.setTimeLimit(POSITION_TIME_LIMIT_MILLIS);
+		Map<Long, Integer> entries = new HashMap<>();
+		int depth = Difficulty.UNLIMITED;
+
+		for (String spec : specs) {
+			String[] parts = spec.split("[x:]");
+			int width = Integer.parseInt(parts[0]);
+			int height = Integer.parseInt(parts[1]);
+			int winLength = Integer.parseInt(parts[2]);
+			int plies = Integer.parseInt(parts[3]);
+			search.setDepthLimit(parts.length > 4 ? depthLimit(parts[4]) : Difficulty.HARD.getDepthLimit());
+
+			long start = System.nanoTime();
+			int before = entries.size();
+			int specDepth = OpeningBook.generate(width, height, winLength, plies, search, entries);
+			depth = Math.min(depth, specDepth);
+			System.out.printf("%s: %d positions searched to %s in %.1f s%n", spec, entries.size() - before,
+					depthName(specDepth), (System.nanoTime() - start) / 1e9);
+		}
+
+		OpeningBook.write(Paths.get(file), entries, depth);
+		System.out.println("Wrote " + entries.size() + " positions searched to " + depthName(depth) + " to " + file);
+	}
+
+	private static int depthLimit(String depth) {
+		return depth.equalsIgnoreCase("unlimited") ? Difficulty.UNLIMITED : Integer.parseInt(depth);
+	}
+
+	private static String depthName(int depth) {
+		return depth == Difficulty.UNLIMITED ? "the end of the game" : depth + " plies";
+	}
+}
@@ -0,0 +1,65 @@
+package start;
+
+import java.util.Locale;
+import java.util.function.Supplier;
+
+import model.Bot;
+import model.Difficulty;
+import model.SelfPlaySimulator;
+import model.SimulationResult;
+
+/**
+ * Plays games between two bots on every core, with no window and no delay between moves, and prints how the first
+ * bot did, how fast the games went and how long the moves took.
+ * Usage: {@code SelfPlay [GAMES] [FIRST] [SECOND] [WIDTHxHEIGHTxK] [THREADS]}, where a bot is {@code mrbean},
+ * {@code hal} or {@code hal:DIFFICULTY}, for example {@code SelfPlay 1000000 hal mrbean 3x3x3}
+ * or {@code SelfPlay 1000 hal:medium hal:easy 7x7x4 4}.
+ * A bare {@code hal} plays at {@link Difficulty#PERFECT} on the classic board, which it answers from a table,
+ * and at {@link Difficulty#HARD} on any other, since a perfect Hal has no depth or time limit and would not finish
+ * a game on a larger board; {@code hal:perfect} there is only practical on boards it can solve, such as 4x4x3.
+ */
+public class SelfPlay {
+
+	public static void main(String[] args) {
+		long games = args.length > 0 ? Long.parseLong(args[0]) : 100_000;
+		String first = args.length > 1 ? args[1] : "hal";
+		String second = args.length > 2 ? args[2] : "mrbean";
+		String[] board = (args.length > 3 ? args[3] : "3x3x3").split("x");
+		int width = Integer.parseInt(board[0]);
+		int height = Integer.parseInt(board[1]);
+		int winLength = Integer.parseInt(board[2]);
+
+		boolean classic = width == 3 && height == 3 && winLength == 3;
+		SelfPlaySimulator simulator = new SelfPlaySimulator(bot(first, classic), bot(second, classic), height, width,
+				winLength);
+		if (args.length > 4) {
+			simulator.setThreads(Integer.parseInt(args[4]));
+		}
+
+		System.out.printf("%s against %s on %dx%d with k=%d, %d games on %d threads%n", first, second, width,
+				height, winLength, games, simulator.getThreads());
+		SimulationResult result = simulator.run(games);
+
+		System.out.printf("%s: %d wins, %d draws, %d losses%n", first, result.getWins(), result.getDraws(),
+				result.getLosses());
+		System.out.printf("%.0f games/s, %d moves in %.1f s%n", result.getGamesPerSecond(), result.getMoves(),
+				result.getElapsedNanos() / 1e9);
+		System.out.printf("Move latency: p50 %.1f us, p90 %.1f us, p99 %.1f us, p99.9 %.1f us, max %.1f us%n",
+				result.getMoveLatency(50) / 1e3, result.getMoveLatency(90) / 1e3, result.getMoveLatency(99) / 1e3,
+				result.getMoveLatency(99.9) / 1e3, result.getMaxMoveLatency() / 1e3);
+	}
+
+	private static Supplier<Bot> bot(String name, boolean classic) {
+		String[] parts = name.toLowerCase(Locale.ROOT).split(":");
+		switch (parts[0]) {
+		case "mrbean":
+			return Bot::mrBean;
+		case "hal":
+			Difficulty difficulty = parts.length > 1 ? Difficulty.valueOf(parts[1].toUpperCase(Locale.ROOT))
+					: classic ? Difficulty.PERFECT : Difficulty.HARD;
+			return () -> Bot.hal(difficulty);
+		default:
+			throw new IllegalArgumentException("Unknown bot " + name + ", expected mrbean, hal or hal:DIFFICULTY");
+		}
+	}
+}
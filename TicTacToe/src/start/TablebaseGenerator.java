@@ -0,0 +1,26 @@
+package start;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+import model.EndgameTablebase;
+
+/**
+ * Builds the endgame tablebase of a board in the file the game looks for.
+ * Usage: {@code TablebaseGenerator WIDTH HEIGHT K LIMIT}, for example {@code TablebaseGenerator 4 4 4 9}
+ * for every 4x4 position with at most 9 empty cells.
+ */
+public class TablebaseGenerator {
+
+	public static void main(String[] args) throws IOException {
+		int width = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+		int height = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+		int winLength = args.length > 2 ? Integer.parseInt(args[2]) : 4;
+		int limit = args.length > 3 ? Integer.parseInt(args[3]) : 9;
+		String file = EndgameTablebase.fileName(width, height, winLength);
+
+		long start = System.nanoTime();
+		EndgameTablebase.generate(width, height, winLength, limit, Paths.get(file));
+		System.out.printf("Wrote %s in %.1f s%n", file, (System.nanoTime() - start) / 1e9);
+	}
+}
@@ -1,12 +1,24 @@
 package start.tests;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CancellationException;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
 import model.AiPlayer;
+import model.Difficulty;
+import model.MnkBoard;
+import model.MnkSearch;
+import model.Move;
+import model.MoveAnalysis;
+import model.SearchStats;
 
 public class AiPlayerTest {
 
@@ -71,4 +83,196 @@ public class AiPlayerTest {
         assertEquals(0, ai.getBestRow(), "the best row is 0");
         assertEquals(0, ai.getBestCol(), "The best col is 0");
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Check best move blocks the opponent")
+    void testBestMove7() {
+        String[][] board7 = { { "X", "X", null }, { null, "O", null }, { null, null, null } };
+        ai.findBestMove(board7, "X");
+        assertEquals(0, ai.getBestRow(), "the best row is 0");
+        assertEquals(2, ai.getBestCol(), "The best col is 2");
+    }
+
+    @Test
+    @DisplayName("Check alpha-beta searches fewer nodes than the full game tree")
+    void testNodeCount() {
+        AiPlayer.getTranspositionTable().clear();
+        String[][] board = { { null, null, null }, { null, null, null }, { null, null, "-" } };
+        ai.findBestMove(board, "X");
+        assertTrue(ai.getNodeCount() > 0, "The search should visit nodes");
+        assertTrue(ai.getNodeCount() < 109601, "The search should prune the full game tree");
+    }
+
+    @Test
+    @DisplayName("Check the statistics of a search match its node count")
+    void testStats() {
+        String[][] board = { { null, null, null }, { null, null, null }, { null, null, "-" } };
+        ai.findBestMove(board, "X");
+        SearchStats stats = ai.getStats();
+
+        assertEquals(ai.getNodeCount(), stats.getNodes(), "The statistics should count every node");
+        assertEquals(8, stats.getDepth(), "The classic board should be searched to the end");
+        assertTrue(stats.getElapsedNanos() > 0, "The search time should be measured");
+        assertTrue(stats.getCacheHitRate() >= 0 && stats.getCacheHitRate() <= 1, "The hit rate should be a share");
+        assertTrue(stats.getTableProbes() > 0, "The transposition table should be probed");
+    }
+
+    @Test
+    @DisplayName("Check an X and O board is answered from the perfect play table")
+    void testPerfectPlayTable() {
+        String[][] board = { { "X", null, null }, { null, null, null }, { null, null, null } };
+        ai.findBestMove(board, "X");
+        assertEquals(0, ai.getNodeCount(), "No positions should be searched");
+        assertEquals(1, ai.getBestRow(), "the best row is 1");
+        assertEquals(1, ai.getBestCol(), "The best col is 1");
+    }
+
+    @Test
+    @DisplayName("Check a cancelled AI player stops searching")
+    void testCancel() {
+        AiPlayer large = new AiPlayer("O", 4);
+        large.cancel();
+        assertThrows(CancellationException.class, () -> large.findBestMove(new String[5][5], "X"));
+        assertThrows(CancellationException.class, () -> large.findBestMove(new String[3][3], "X"));
+    }
+
+    @Test
+    @DisplayName("Check a pondered reply is answered without searching")
+    void testPonder() {
+        String[][] board = new String[4][4];
+        board[1][1] = "X";
+        board[0][0] = "O";
+        AiPlayer ponderer = new AiPlayer("O", 3);
+        ponderer.ponder(board, "X");
+
+        board[2][2] = "X";
+        AiPlayer player = new AiPlayer("O", 3);
+        player.usePonderedMoves(ponderer);
+        player.findBestMove(board, "X");
+        int expected = new MnkSearch().findBestMove(MnkBoard.fromStrings(board, 3, "O", "X"));
+
+        assertEquals(0, player.getNodeCount(), "The answer should come from pondering");
+        assertEquals(expected, player.getBestRow() * 4 + player.getBestCol(), "The answer should match a search");
+    }
+
+    @Test
+    @DisplayName("Check pondered replies are only played under the limits they were pondered with")
+    void testPonderLimits() {
+        String[][] board = new String[4][4];
+        board[1][1] = "X";
+        board[0][0] = "O";
+        AiPlayer ponderer = new AiPlayer("O", 3);
+        ponderer.setDifficulty(Difficulty.EASY);
+        ponderer.ponder(board, "X");
+
+        board[2][2] = "X";
+        AiPlayer perfect = new AiPlayer("O", 3);
+        perfect.usePonderedMoves(ponderer);
+        perfect.findBestMove(board, "X");
+        assertTrue(perfect.getNodeCount() > 0, "Easy answers should not be played at perfect difficulty");
+
+        AiPlayer easy = new AiPlayer("O", 3);
+        easy.setDifficulty(Difficulty.EASY);
+        ponderer.cancel();
+        easy.usePonderedMoves(ponderer);
+        easy.findBestMove(board, "X");
+        assertTrue(easy.getNodeCount() > 0, "Cancelling the ponderer should drop its answers");
+    }
+
+    @Test
+    @DisplayName("Check pondering a large board at perfect difficulty ends within its budget")
+    void testPonderBudget() {
+        String[][] board = new String[7][7];
+        board[3][3] = "X";
+        board[3][4] = "O";
+        AiPlayer ponderer = new AiPlayer("O", 4);
+        long start = System.nanoTime();
+        ponderer.ponder(board, "X");
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000L;
+        assertTrue(elapsedMillis < 15_000, "Eight replies of 1 s each should be pondered in time: " + elapsedMillis);
+        assertTrue(ponderer.getStats().getNodes() > 0, "The replies should have been searched");
+    }
+
+    @Test
+    @DisplayName("Check every move is analysed with its score and principal variation")
+    void testAnalyze() {
+        String[][] board = { { "X", "X", null }, { null, "O", null }, { null, null, null } };
+        List<MoveAnalysis> analysis = ai.analyze(board, "X");
+
+        assertEquals(6, analysis.size(), "Every empty cell should be analysed");
+        assertEquals(new Move(0, 2), analysis.get(0).getMove(), "The block should come first");
+        assertFalse(analysis.get(0).isLoss(), "The block should not lose");
+        for (MoveAnalysis move : analysis.subList(1, analysis.size())) {
+            assertTrue(move.isLoss(), "Every other move should lose " + move);
+            assertEquals(List.of(move.getMove(), new Move(0, 2)), move.getPrincipalVariation(),
+                    "X should win at once after " + move.getMove());
+        }
+        assertEquals(analysis.get(0).getMove(), analysis.get(0).getPrincipalVariation().get(0),
+                "The principal variation should start with the move");
+    }
+
+    @Test
+    @DisplayName("Check a perfect analysis of a large board ends within its time budget")
+    void testAnalyzeTimeBudget() {
+        String[][] board = new String[7][7];
+        board[3][3] = "X";
+        AiPlayer large = new AiPlayer("O", 4);
+        long start = System.nanoTime();
+        List<MoveAnalysis> analysis = large.analyze(board, "X");
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000L;
+
+        assertEquals(48, analysis.size(), "Every empty cell should be analysed");
+        assertTrue(elapsedMillis < 5000, "The analysis should stop near its budget of 2 s: " + elapsedMillis + " ms");
+        assertTrue(large.getStats().getDepth() >= 1, "At least one depth should have been completed");
+    }
+
+    @Test
+    @DisplayName("Check Hal finds a forced win on the Gomoku board with the threat-space search")
+    void testThreatSpaceSearch() {
+        String[][] board = new String[15][15];
+        board[7][5] = "O";
+        board[7][6] = "O";
+        board[7][7] = "O";
+        board[0][0] = "X";
+        board[0][14] = "X";
+        board[14][0] = "X";
+        AiPlayer gomoku = new AiPlayer("O", 5);
+        gomoku.setDifficulty(Difficulty.HARD);
+        gomoku.findBestMove(board, "X");
+
+        assertTrue(gomoku.isThreatSpaceSearch(), "Hard difficulty should use the threat-space search");
+        assertEquals(7, gomoku.getBestRow(), "Hal should extend its three on row 7");
+    }
+
+    @Test
+    @DisplayName("Check Hal takes the faster of two wins")
+    void testFastestWin() {
+        String[][] board = { { null, null, "X", null }, { null, "X", null, null }, { null, null, "O", null },
+                { "O", null, null, null } };
+        AiPlayer player = new AiPlayer("X", 3);
+        List<MoveAnalysis> analysis = player.analyze(board, "O");
+        assertTrue(analysis.stream().anyMatch(move -> move.isWin() && move.getScore() < analysis.get(0).getScore()),
+                "Moves winning later should also be found as wins");
+
+        player.findBestMove(board, "O");
+        assertEquals(new Move(2, 0), new Move(player.getBestRow(), player.getBestCol()),
+                "Hal should complete the diagonal at once rather than win later");
+        assertEquals(MnkSearch.WIN_SCORE, analysis.get(0).getScore(), "A win on the first move should score highest");
+    }
+
+    @Test
+    @DisplayName("Check Hal puts off a loss it cannot avoid as long as it can")
+    void testSlowestLoss() {
+        String[][] board = { { null, null, "X", "O" }, { null, null, null, null }, { null, "X", null, "X" },
+                { "O", null, null, null } };
+        AiPlayer player = new AiPlayer("O", 3);
+        List<MoveAnalysis> analysis = player.analyze(board, "X");
+        assertTrue(analysis.stream().allMatch(MoveAnalysis::isLoss), "Every move of O should lose");
+
+        player.findBestMove(board, "X");
+        assertEquals(new Move(2, 2), new Move(player.getBestRow(), player.getBestCol()),
+                "Hal should block and lose on ply 4 rather than on ply 2");
+        assertEquals(-(MnkSearch.WIN_SCORE - 3), analysis.get(0).getScore(), "The block should lose on ply 4");
+        assertEquals(-(MnkSearch.WIN_SCORE - 1), analysis.get(1).getScore(), "Any other move should lose on ply 2");
+    }
+}
@@ -0,0 +1,70 @@
+package start.tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import model.EndgameTablebase;
+import model.MnkBoard;
+import model.MnkSearch;
+
+public class EndgameTablebaseTest {
+
+    @TempDir
+    Path folder;
+
+    @Test
+    @DisplayName("Check the tablebase scores positions like a full search")
+    public void testSameAsSearch() throws IOException {
+        Path file = folder.resolve(EndgameTablebase.fileName(4, 3, 3));
+        EndgameTablebase.generate(4, 3, 3, 12, file);
+        EndgameTablebase tablebase = EndgameTablebase.load(file);
+
+        MnkBoard board = new MnkBoard(4, 3, 3);
+        board.play(board.cell(1, 1));
+        board.play(board.cell(0, 0));
+
+        MnkSearch search = new MnkSearch();
+        int expected = search.findBestMove(new MnkBoard(board));
+        assertEquals(search.getBestScore(), tablebase.probe(board, 0), "The table should score the root like the search");
+
+        MnkSearch probing = new MnkSearch();
+        probing.setTablebase(tablebase);
+        assertEquals(expected, probing.findBestMove(board), "Both searches should pick the same cell");
+        assertEquals(search.getBestScore(), probing.getBestScore(), "Both searches should find the same score");
+        assertEquals(10, probing.getNodeCount(), "Every move of the root should be answered by the table");
+    }
+
+    @Test
+    @DisplayName("Check a won position is scored by its distance")
+    public void testDistance() throws IOException {
+        Path file = folder.resolve(EndgameTablebase.fileName(3, 3, 3));
+        EndgameTablebase.generate(3, 3, 3, 9, file);
+        EndgameTablebase tablebase = EndgameTablebase.load(file);
+
+        MnkBoard board = new MnkBoard(3, 3, 3);
+        board.play(board.cell(0, 0));
+        board.play(board.cell(1, 0));
+        board.play(board.cell(0, 1));
+        board.play(board.cell(1, 1));
+        assertEquals(MnkSearch.WIN_SCORE, tablebase.probe(board, 0), "X should win on this move");
+
+        board.play(board.cell(2, 2));
+        assertEquals(MnkSearch.WIN_SCORE - 1, tablebase.probe(board, 1), "O should win on its next move");
+    }
+
+    @Test
+    @DisplayName("Check a file that is not a tablebase is rejected")
+    public void testInvalidFile() throws IOException {
+        Path file = folder.resolve("book.bin");
+        Files.write(file, new byte[30]);
+        assertThrows(IOException.class, () -> EndgameTablebase.load(file));
+    }
+}
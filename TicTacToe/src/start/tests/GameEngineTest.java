@@ -0,0 +1,97 @@
+package start.tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import model.GameEngine;
+import model.GameStatus;
+import model.MnkBoard;
+import model.Move;
+
+public class GameEngineTest {
+
+    private static void play(GameEngine engine, int[][] moves) {
+        for (int[] move : moves) {
+            engine.play(new Move(move[0], move[1]));
+        }
+    }
+
+    @Test
+    @DisplayName("Check a completed line wins the game and is reported as the winner line")
+    public void testWin() {
+        GameEngine engine = new GameEngine();
+        play(engine, new int[][] { { 0, 0 }, { 1, 0 }, { 1, 1 }, { 2, 0 } });
+        assertEquals(GameStatus.IN_PROGRESS, engine.status(), "No line is complete yet");
+        assertTrue(engine.winnerLine().isEmpty(), "A game in progress should have no winner line");
+
+        assertEquals(GameStatus.X_WINS, engine.play(new Move(2, 2)), "X should win on the diagonal");
+        assertEquals(List.of(new Move(0, 0), new Move(1, 1), new Move(2, 2)), engine.winnerLine(),
+                "The winner line should be the diagonal");
+        assertEquals(0, engine.getMover(), "The winner should stay the mover");
+        assertFalse(engine.isLegal(new Move(0, 1)), "No move is legal once the game is won");
+        assertThrows(IllegalStateException.class, () -> engine.play(new Move(0, 1)),
+                "A move after the end of the game should be rejected");
+    }
+
+    @Test
+    @DisplayName("Check a line of 5 on the Gomoku board is found and reported in order")
+    public void testLargeBoardWin() {
+        GameEngine engine = new GameEngine(15, 15, 5);
+        for (int i = 0; i < 4; i++) {
+            engine.play(new Move(10 - i, 3 + i));
+            engine.play(new Move(0, i));
+        }
+        assertEquals(GameStatus.IN_PROGRESS, engine.status(), "Four in a row should not win");
+
+        assertEquals(GameStatus.X_WINS, engine.play(new Move(6, 7)), "X should win on the anti-diagonal");
+        assertEquals(List.of(new Move(6, 7), new Move(7, 6), new Move(8, 5), new Move(9, 4), new Move(10, 3)),
+                engine.winnerLine(), "The winner line should be the anti-diagonal, top cell first");
+    }
+
+    @Test
+    @DisplayName("Check a full board without a line is a draw")
+    public void testDraw() {
+        GameEngine engine = new GameEngine();
+        play(engine, new int[][] { { 0, 0 }, { 0, 1 }, { 0, 2 }, { 1, 1 }, { 1, 0 }, { 1, 2 }, { 2, 1 }, { 2, 0 },
+                { 2, 2 } });
+        assertEquals(GameStatus.DRAW, engine.status(), "The full board should be a draw");
+        assertTrue(engine.winnerLine().isEmpty(), "A draw should have no winner line");
+    }
+
+    @Test
+    @DisplayName("Check moves on marked cells or off the board are rejected without changing the game")
+    public void testIllegalMoves() {
+        GameEngine engine = new GameEngine();
+        engine.play(new Move(1, 1));
+        long key = engine.getPositionKey();
+
+        assertThrows(IllegalArgumentException.class, () -> engine.play(new Move(1, 1)), "The cell is marked");
+        assertThrows(IllegalArgumentException.class, () -> engine.play(new Move(3, 0)), "The row is off the board");
+        assertThrows(IllegalArgumentException.class, () -> engine.play(new Move(0, -1)), "The column is off the board");
+        assertEquals(1, engine.getMover(), "O should still be to move");
+        assertEquals(1, engine.getMoveCount(), "Only the legal move should be counted");
+        assertEquals(key, engine.getPositionKey(), "The position key should not change");
+    }
+
+    @Test
+    @DisplayName("Check the position key matches the hash of the same position on an MnkBoard")
+    public void testPositionKey() {
+        GameEngine engine = new GameEngine(5, 5, 4);
+        play(engine, new int[][] { { 2, 2 }, { 0, 4 }, { 3, 1 } });
+        MnkBoard board = MnkBoard.fromStrings(engine.getBoard(), 4, "X", "O");
+        board.pass();
+        assertEquals(board.getHash(), engine.getPositionKey(), "The keys should match with O to move");
+
+        engine.newGame();
+        assertEquals(GameStatus.IN_PROGRESS, engine.status(), "A new game should be in progress");
+        assertEquals(0, engine.getMoveCount(), "A new game should have an empty board");
+        assertEquals(5, engine.getRows(), "A new game should keep the size of the board");
+    }
+}
@@ -94,17 +94,14 @@ public class GameModelTest {
     @Test
     public void testIsFull() {
        
-    	gc.getGameBoard().getBoard()[0][0] = "X";
-    	gc.getGameBoard().getBoard()[0][1] = "X";
-    	gc.getGameBoard().getBoard()[0][2] = "X";
-    	gc.getGameBoard().getBoard()[1][0] = "X";
-    	gc.getGameBoard().getBoard()[1][1] = "X";
-    	gc.getGameBoard().getBoard()[1][2] = "X";
-    	gc.getGameBoard().getBoard()[2][0] = "X";
-    	gc.getGameBoard().getBoard()[2][1] = "X";
-    	gc.getGameBoard().getBoard()[2][2] = "X";
+    	int[][] moves = { { 0, 0 }, { 0, 1 }, { 0, 2 }, { 1, 1 }, { 1, 0 }, { 1, 2 }, { 2, 1 }, { 2, 0 }, { 2, 2 } };
+    	for (int[] move : moves) {
+    		assertFalse(gameModel.isFull());
+    		gameModel.playMove(move[0], move[1]);
+    	}
 
         assertTrue(gameModel.isFull());
+        assertEquals("X", gc.getGameBoard().getBoard()[2][2]);
     }
 
 
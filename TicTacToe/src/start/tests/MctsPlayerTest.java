@@ -0,0 +1,54 @@
+package start.tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import model.MctsPlayer;
+
+public class MctsPlayerTest {
+
+    private ForkJoinPool pool;
+
+    @BeforeEach
+    public void setUp() {
+        pool = new ForkJoinPool(2);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Check the MCTS player takes an immediate win")
+    public void testTakesWin() {
+        String[][] board = { { "O", "O", null }, { "X", "X", null }, { "X", null, null } };
+        MctsPlayer player = new MctsPlayer("O", 3, pool);
+        player.setPlayoutBudget(4000);
+        player.findBestMove(board, "X");
+
+        assertEquals(0, player.getBestRow(), "O should complete the top row");
+        assertEquals(2, player.getBestCol(), "O should complete the top row");
+    }
+
+    @Test
+    @DisplayName("Check the playouts are shared among the threads and land on an empty cell")
+    public void testPlayoutBudget() {
+        String[][] board = new String[5][5];
+        board[2][2] = "X";
+        MctsPlayer player = new MctsPlayer("O", 4, pool);
+        player.setThreads(3);
+        player.setPlayoutBudget(1001);
+        player.findBestMove(board, "X");
+
+        assertEquals(1001, player.getPlayoutCount(), "Every playout of the budget should be run");
+        assertNull(board[player.getBestRow()][player.getBestCol()], "The chosen cell should be empty");
+    }
+}
@@ -0,0 +1,241 @@
+package start.tests;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import model.MnkBoard;
+import model.MnkSearch;
+import model.MoveAnalysis;
+import model.TranspositionTable;
+import model.Zobrist;
+
+public class MnkBoardTest {
+
+    @Test
+    @DisplayName("Check a diagonal of 4 wins on a 5x5 board")
+    public void testDiagonalWin() {
+        MnkBoard board = new MnkBoard(5, 5, 4);
+        int[] moves = { board.cell(0, 1), board.cell(4, 4), board.cell(1, 2), board.cell(4, 3),
+                board.cell(2, 3), board.cell(4, 2) };
+
+        for (int move : moves) {
+            board.play(move);
+        }
+        assertEquals(MnkBoard.NONE, board.getWinner(), "Nobody should have won yet");
+        assertTrue(board.isWinningMove(board.cell(3, 4), 0), "The diagonal should be one move from a win");
+
+        board.play(board.cell(3, 4));
+        assertEquals(0, board.getWinner(), "The first side should have won");
+        assertArrayEquals(new int[] { board.cell(0, 1), board.cell(1, 2), board.cell(2, 3), board.cell(3, 4) },
+                board.getWinningLine(), "The winning line should be the diagonal");
+
+        board.undo();
+        assertEquals(MnkBoard.NONE, board.getWinner(), "Taking the move back should undo the win");
+        assertEquals(0, board.getWinningLine().length, "Taking the move back should clear the winning line");
+        assertEquals(0, board.getSideToMove(), "The first side should be to move again");
+    }
+
+    @Test
+    @DisplayName("Check a line of 2 ends the game on a 2x2 board")
+    public void testGameOver() {
+        MnkBoard board = new MnkBoard(2, 2, 2);
+        board.play(board.cell(0, 0));
+        board.play(board.cell(1, 0));
+        assertFalse(board.isGameOver(), "The game should still be running");
+        board.play(board.cell(0, 1));
+        assertEquals(0, board.getWinner(), "The top row should win");
+        assertTrue(board.isGameOver(), "The game should be over");
+    }
+
+    @Test
+    @DisplayName("Check foreign symbols block lines for both sides")
+    public void testFromStrings() {
+        String[][] strings = { { "X", "X", "-", null }, { null, "O", null, null } };
+        MnkBoard board = MnkBoard.fromStrings(strings, 3, "X", "O");
+
+        assertEquals(4, board.getWidth(), "The width should be 4");
+        assertEquals(2, board.getHeight(), "The height should be 2");
+        assertEquals(4, board.getEmptyCount(), "4 cells should be empty");
+        assertFalse(board.isEmpty(board.cell(0, 2)), "The foreign symbol should occupy its cell");
+        assertFalse(board.isWinningMove(board.cell(0, 3), 0), "The blocked row should not be winnable");
+    }
+
+    @Test
+    @DisplayName("Check the search takes an immediate win on a 4x4 board")
+    public void testSearchWins() {
+        String[][] strings = { { "X", "X", "X", null }, { "O", "O", "O", null }, { null, null, null, null },
+                { null, null, null, null } };
+        MnkBoard board = MnkBoard.fromStrings(strings, 4, "O", "X");
+        MnkSearch search = new MnkSearch();
+
+        assertEquals(board.cell(1, 3), search.findBestMove(board), "O should complete its row");
+        assertEquals(MnkSearch.WIN_SCORE, search.getBestScore(), "The move should be a win");
+    }
+
+    @Test
+    @DisplayName("Check the hash depends on the position only, not on the move order")
+    public void testHash() {
+        MnkBoard first = new MnkBoard(4, 4, 3);
+        MnkBoard second = new MnkBoard(4, 4, 3);
+        long empty = first.getHash();
+
+        first.play(0);
+        first.play(5);
+        first.play(10);
+        second.play(10);
+        second.play(5);
+        second.play(0);
+        assertEquals(first.getHash(), second.getHash(), "Transposed move orders should hash the same");
+
+        first.undo();
+        assertNotEquals(second.getHash(), first.getHash(), "Different positions should hash differently");
+        first.undo();
+        first.undo();
+        assertEquals(empty, first.getHash(), "Taking back every move should restore the hash");
+        assertNotEquals(empty, new MnkBoard(4, 4, 4).getHash(), "Different games should hash differently");
+    }
+
+    @Test
+    @DisplayName("Check the hash of a board built from strings matches the incremental one")
+    public void testHashFromStrings() {
+        String[][] strings = { { "X", null, "-" }, { null, "O", null }, { null, null, null } };
+        MnkBoard board = new MnkBoard(3, 3, 3);
+        board.play(board.cell(0, 0));
+        board.play(board.cell(1, 1));
+
+        MnkBoard loaded = MnkBoard.fromStrings(strings, 3, "X", "O");
+        assertEquals(Zobrist.hash(strings, 3, "X", "O", 0), loaded.getHash(), "Both hashes should agree");
+        assertEquals(board.getHash() ^ Zobrist.stone(Zobrist.BLOCKED, board.cell(0, 2)), loaded.getHash(),
+                "Only the foreign symbol should differ");
+    }
+
+    @Test
+    @DisplayName("Check the evaluation sees threats and forks and survives undo")
+    public void testEvaluate() {
+        MnkBoard board = new MnkBoard(5, 5, 4);
+        int empty = board.evaluate();
+        // X builds a horizontal and a vertical three meeting at (2, 2), O plays far away.
+        int[] moves = { board.cell(2, 2), board.cell(0, 4), board.cell(2, 1), board.cell(4, 4), board.cell(1, 2),
+                board.cell(0, 0) };
+        for (int move : moves) {
+            board.play(move);
+        }
+        assertEquals(0, board.getThreatCount(0), "X should have no three yet");
+        assertTrue(board.evaluate() > 0, "X should be better off");
+
+        board.play(board.cell(2, 3));
+        board.play(board.cell(4, 0));
+        board.play(board.cell(3, 2));
+        assertEquals(4, board.getThreatCount(0), "X should threaten both ends of a row and of a column");
+        assertEquals(-MnkBoard.MAX_EVALUATION / 2, board.evaluate(), "O should face a fork");
+
+        board.undo();
+        assertEquals(MnkBoard.MAX_EVALUATION, board.evaluate(), "X should win on this move");
+
+        while (board.getMoveCount() > 0) {
+            board.undo();
+        }
+        assertEquals(empty, board.evaluate(), "Taking every move back should restore the score");
+    }
+
+    @Test
+    @DisplayName("Check a depth-limited search still takes an immediate win")
+    public void testDepthLimit() {
+        MnkBoard board = new MnkBoard(9, 9, 4);
+        int[] moves = { board.cell(4, 2), board.cell(0, 0), board.cell(4, 3), board.cell(8, 8), board.cell(4, 4),
+                board.cell(0, 8) };
+        for (int move : moves) {
+            board.play(move);
+        }
+
+        MnkSearch search = new MnkSearch();
+        search.setDepthLimit(2);
+        int cell = search.findBestMove(board);
+        assertTrue(cell == board.cell(4, 1) || cell == board.cell(4, 5), "X should complete its row");
+        assertEquals(MnkSearch.WIN_SCORE, search.getBestScore(), "The move should be a win");
+    }
+
+    @Test
+    @DisplayName("Check deepening with aspiration windows agrees with a fixed-depth search")
+    public void testAspirationWindows() {
+        MnkBoard board = new MnkBoard(7, 7, 5);
+        int[] moves = { board.cell(3, 3), board.cell(3, 4), board.cell(4, 4), board.cell(4, 3) };
+        for (int move : moves) {
+            board.play(move);
+        }
+
+        MnkSearch fixed = new MnkSearch();
+        fixed.setDepthLimit(4);
+        int expected = fixed.findBestMove(board);
+
+        MnkSearch deepening = new MnkSearch();
+        deepening.setDepthLimit(4);
+        deepening.setTimeLimit(60_000);
+        assertEquals(expected, deepening.findBestMove(board), "Both searches should pick the same cell");
+        assertEquals(fixed.getBestScore(), deepening.getBestScore(), "Both searches should find the same score");
+        assertEquals(4, deepening.getCompletedDepth(), "Every depth up to the limit should be completed");
+    }
+
+    @Test
+    @DisplayName("Check a time budget bounds the search on a 15x15 board")
+    public void testTimeBudget() {
+        MnkBoard board = new MnkBoard(15, 15, 5);
+        board.play(board.cell(7, 7));
+
+        MnkSearch search = new MnkSearch();
+        search.setTimeLimit(50);
+        long start = System.nanoTime();
+        int cell = search.findBestMove(board);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertTrue(board.isEmpty(cell), "The move should be on an empty cell");
+        assertTrue(search.isTimedOut(), "Gomoku cannot be solved in 50 ms");
+        assertTrue(elapsedMillis < 1000, "The search should stop close to its budget, not after " + elapsedMillis + " ms");
+        assertEquals(1, board.getMoveCount(), "The board should be restored");
+    }
+
+    @Test
+    @DisplayName("Check invalid sizes are rejected")
+    public void testInvalidSize() {
+        assertThrows(IllegalArgumentException.class, () -> new MnkBoard(3, 3, 4));
+        assertThrows(IllegalArgumentException.class, () -> new MnkBoard(0, 3, 1));
+    }
+
+    @Test
+    @DisplayName("Check wins cached deeper in the tree keep their distance when reused nearer the root")
+    public void testTableAtDifferentPly() {
+        MnkBoard board = new MnkBoard(4, 4, 3);
+        int[] moves = { board.cell(0, 2), board.cell(2, 2), board.cell(1, 1), board.cell(3, 0) };
+        for (int cell : moves) {
+            board.play(cell);
+        }
+        List<MoveAnalysis> expected = new MnkSearch().analyze(board);
+
+        // Fill a table from positions one and two plies below the root, then search the root with it.
+        TranspositionTable table = new TranspositionTable(1 << 16);
+        MnkSearch search = new MnkSearch(table);
+        board.play(board.cell(1, 2));
+        search.findBestMove(board);
+        board.play(board.cell(1, 0));
+        search.findBestMove(board);
+        board.undo();
+        board.undo();
+
+        List<MoveAnalysis> analysis = search.analyze(board);
+        assertTrue(search.getStats().getTableHits() > 0, "The cached positions should be found again");
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getMove(), analysis.get(i).getMove(), "The moves should rank the same");
+            assertEquals(expected.get(i).getScore(), analysis.get(i).getScore(),
+                    "The score of " + expected.get(i).getMove() + " should not depend on the table");
+        }
+    }
+}
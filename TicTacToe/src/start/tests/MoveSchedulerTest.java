@@ -0,0 +1,94 @@
+package start.tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import model.MoveScheduler;
+
+public class MoveSchedulerTest {
+
+    private final AtomicInteger threads = new AtomicInteger();
+    private final BlockingQueue<Runnable> dispatched = new LinkedBlockingQueue<>();
+    private ScheduledThreadPoolExecutor executor;
+    private MoveScheduler scheduler;
+
+    @BeforeEach
+    public void setUp() {
+        executor = new ScheduledThreadPoolExecutor(1, task -> {
+            threads.incrementAndGet();
+            Thread thread = new Thread(task, "Bot-moves");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.setRemoveOnCancelPolicy(true);
+        // The queue stands in for the Event Dispatch Thread: the test thread runs what was dispatched.
+        scheduler = new MoveScheduler(executor, dispatched::add);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Check a move scheduled before a cancel is never played")
+    public void testCancel() throws InterruptedException {
+        AtomicBoolean played = new AtomicBoolean();
+        scheduler.schedule(() -> played.set(true), 60_000);
+        scheduler.cancel();
+        assertEquals(0, executor.getQueue().size(), "The cancelled move should leave the scheduler");
+
+        // A move whose delay ran out waits for the dispatcher, where a cancel must still stop it.
+        scheduler.schedule(() -> played.set(true), 0);
+        Runnable move = dispatched.poll(5, TimeUnit.SECONDS);
+        assertNotNull(move, "The move should be dispatched once its delay runs out");
+        scheduler.cancel();
+        move.run();
+
+        assertFalse(played.get(), "No cancelled move should be played");
+        assertNull(dispatched.poll(100, TimeUnit.MILLISECONDS), "Nothing else should be dispatched");
+    }
+
+    @Test
+    @DisplayName("Check a new move replaces the pending one")
+    public void testReplace() throws InterruptedException {
+        AtomicInteger played = new AtomicInteger();
+        scheduler.schedule(() -> played.addAndGet(1), 0);
+        Runnable first = dispatched.poll(5, TimeUnit.SECONDS);
+        scheduler.schedule(() -> played.addAndGet(10), 0);
+        Runnable second = dispatched.poll(5, TimeUnit.SECONDS);
+        first.run();
+        second.run();
+
+        assertEquals(10, played.get(), "Only the last move should be played");
+    }
+
+    @Test
+    @DisplayName("Check delayed moves share one thread")
+    public void testNoThreadPerMove() throws InterruptedException {
+        AtomicInteger played = new AtomicInteger();
+        for (int i = 0; i < 100; i++) {
+            scheduler.schedule(played::incrementAndGet, 1);
+            Runnable move = dispatched.poll(5, TimeUnit.SECONDS);
+            assertNotNull(move, "Move " + i + " should be dispatched");
+            move.run();
+        }
+
+        assertEquals(100, played.get(), "Every move should be played");
+        assertEquals(1, threads.get(), "No thread should be created per move");
+    }
+}
@@ -0,0 +1,101 @@
+package start.tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import model.AiPlayer;
+import model.Difficulty;
+import model.MnkBoard;
+import model.MnkSearch;
+import model.OpeningBook;
+
+public class OpeningBookTest {
+
+    @TempDir
+    Path folder;
+
+    @Test
+    @DisplayName("Check a written book is read back with every entry")
+    public void testWriteAndLoad() throws IOException {
+        Map<Long, Integer> entries = new HashMap<>();
+        entries.put(-5L, 3);
+        entries.put(42L, 7);
+        entries.put(Long.MAX_VALUE, 4095);
+        Path file = folder.resolve("book.bin");
+        OpeningBook.write(file, entries, 6);
+
+        OpeningBook book = OpeningBook.load(file);
+        assertEquals(3, book.size(), "All entries should be stored");
+        assertEquals(6, book.getDepth(), "The search depth should be stored");
+        assertEquals(3, book.lookup(-5L), "Negative keys should be found");
+        assertEquals(7, book.lookup(42L), "The move of the key should be found");
+        assertEquals(4095, book.lookup(Long.MAX_VALUE), "The largest cell should fit");
+        assertEquals(-1, book.lookup(41L), "Unknown keys should not be found");
+    }
+
+    @Test
+    @DisplayName("Check Hal plays book moves without searching")
+    public void testBookMove() throws IOException {
+        Map<Long, Integer> entries = new HashMap<>();
+        int depth = OpeningBook.generate(4, 3, 3, 2, new MnkSearch(), entries);
+        assertEquals(Difficulty.UNLIMITED, depth, "A search to the end of the game should solve the book");
+        Path file = folder.resolve("book.bin");
+        OpeningBook.write(file, entries, depth);
+
+        String[][] board = new String[3][4];
+        board[0][1] = "X";
+        AiPlayer ai = new AiPlayer("O", 3);
+        ai.setOpeningBook(OpeningBook.load(file));
+        ai.findBestMove(board, "X");
+
+        int expected = new MnkSearch().findBestMove(MnkBoard.fromStrings(board, 3, "O", "X"));
+        assertEquals(0, ai.getNodeCount(), "The move should come from the book");
+        assertEquals(expected, ai.getBestRow() * 4 + ai.getBestCol(), "The book move should match a search");
+    }
+
+    @Test
+    @DisplayName("Check book moves are only played at tiers that search no deeper than the book")
+    public void testBookDepth() throws IOException {
+        Map<Long, Integer> entries = new HashMap<>();
+        MnkSearch search = new MnkSearch();
+        search.setDepthLimit(Difficulty.MEDIUM.getDepthLimit());
+        int depth = OpeningBook.generate(5, 5, 4, 2, search, entries);
+        assertEquals(Difficulty.MEDIUM.getDepthLimit(), depth, "The book should be searched to the medium depth");
+        Path file = folder.resolve("book.bin");
+        OpeningBook.write(file, entries, depth);
+        OpeningBook book = OpeningBook.load(file);
+
+        String[][] board = new String[5][5];
+        board[2][2] = "X";
+        for (Difficulty difficulty : Difficulty.values()) {
+            AiPlayer ai = new AiPlayer("O", 4);
+            ai.setDifficulty(difficulty);
+            ai.setTimeLimit(200);
+            ai.setOpeningBook(book);
+            ai.findBestMove(board, "X");
+
+            boolean fromBook = difficulty.getDepthLimit() <= depth;
+            assertEquals(fromBook, ai.getNodeCount() == 0,
+                    difficulty + " should " + (fromBook ? "" : "not ") + "play the book move");
+        }
+    }
+
+    @Test
+    @DisplayName("Check a file that is not a book is rejected")
+    public void testInvalidFile() throws IOException {
+        Path file = folder.resolve("players.ser");
+        Files.write(file, new byte[] { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13 });
+        assertThrows(IOException.class, () -> OpeningBook.load(file));
+    }
+}
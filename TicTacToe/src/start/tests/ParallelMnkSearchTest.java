@@ -0,0 +1,143 @@
+package start.tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import model.MnkBoard;
+import model.MnkSearch;
+import model.ParallelMnkSearch;
+import model.SearchStats;
+import model.TranspositionTable;
+
+public class ParallelMnkSearchTest {
+
+    private ForkJoinPool pool;
+
+    @BeforeEach
+    public void setUp() {
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Check the parallel search agrees with the serial search")
+    public void testSameMoveAsSerial() {
+        MnkBoard board = new MnkBoard(4, 4, 3);
+        board.play(board.cell(1, 1));
+        board.play(board.cell(0, 0));
+
+        MnkSearch serial = new MnkSearch();
+        int expected = serial.findBestMove(new MnkBoard(board));
+
+        ParallelMnkSearch parallel = new ParallelMnkSearch(pool);
+        assertEquals(expected, parallel.findBestMove(board), "Both searches should pick the same cell");
+        assertEquals(serial.getBestScore(), parallel.getBestScore(), "Both searches should find the same score");
+        assertTrue(parallel.getNodeCount() > 0, "The threads should report their nodes");
+        assertEquals(parallel.getNodeCount(),
+                parallel.getNodeCountPerThread().values().stream().mapToLong(Long::longValue).sum(),
+                "The per-thread counts should add up to the total");
+    }
+
+    @Test
+    @DisplayName("Check the statistics add up the work of all threads")
+    public void testStats() {
+        MnkBoard board = new MnkBoard(4, 4, 3);
+        board.play(board.cell(1, 1));
+
+        ParallelMnkSearch parallel = new ParallelMnkSearch(pool, new TranspositionTable(1 << 16));
+        parallel.findBestMove(board);
+        SearchStats stats = parallel.getStats();
+
+        assertEquals(parallel.getNodeCount(), stats.getNodes(), "The statistics should count every node");
+        assertEquals(15, stats.getDepth(), "The board should be searched to the end");
+        assertEquals(parallel.getElapsedNanos(), stats.getElapsedNanos(), "The time should be the wall-clock time");
+        assertTrue(stats.getCutoffs() > 0, "Alpha-beta should cut some nodes");
+        assertTrue(stats.getTableHits() > 0 && stats.getTableHits() <= stats.getTableProbes(),
+                "Some probes of the transposition table should hit");
+    }
+
+    @Test
+    @DisplayName("Check iterative deepening ends with the move of a full search")
+    public void testIterativeDeepening() {
+        MnkBoard board = new MnkBoard(4, 4, 3);
+        board.play(board.cell(0, 0));
+
+        MnkSearch serial = new MnkSearch();
+        int expected = serial.findBestMove(new MnkBoard(board));
+
+        ParallelMnkSearch parallel = new ParallelMnkSearch(pool);
+        parallel.setTimeLimit(60_000);
+        assertEquals(expected, parallel.findBestMove(board), "Both searches should pick the same cell");
+        assertEquals(serial.getBestScore(), parallel.getBestScore(), "Both searches should find the same score");
+        assertFalse(parallel.isTimedOut(), "A 4x4 board should be solved well within the time limit");
+        assertTrue(parallel.getCompletedDepth() >= 1, "At least one depth should have been completed");
+    }
+
+    @Test
+    @DisplayName("Check killer moves and history save nodes without changing the move or its score")
+    public void testOrderingHeuristics() {
+        MnkBoard board = new MnkBoard(8, 8, 4);
+        board.play(board.cell(4, 4));
+        board.play(board.cell(4, 5));
+        board.play(board.cell(3, 3));
+        MnkSearch serial = new MnkSearch();
+        serial.setDepthLimit(5);
+        int expected = serial.findBestMove(new MnkBoard(board));
+
+        // On one thread the tasks run in a fixed order, so the node counts can be compared.
+        ForkJoinPool single = new ForkJoinPool(1);
+        try {
+            ParallelMnkSearch plain = new ParallelMnkSearch(single);
+            plain.setDepthLimit(5);
+            plain.setOrderingHeuristics(false);
+            assertEquals(expected, plain.findBestMove(new MnkBoard(board)), "The plain search should pick the cell");
+
+            ParallelMnkSearch ordered = new ParallelMnkSearch(single);
+            ordered.setDepthLimit(5);
+            assertEquals(expected, ordered.findBestMove(new MnkBoard(board)), "Both orderings should pick the cell");
+            assertEquals(plain.getBestScore(), ordered.getBestScore(), "Both orderings should find the same score");
+            assertEquals(serial.getBestScore(), ordered.getBestScore(), "The serial search should agree");
+            assertTrue(ordered.getNodeCount() * 2 < plain.getNodeCount(),
+                    "Killer moves and history should at least halve the nodes: " + ordered.getNodeCount() + " vs "
+                            + plain.getNodeCount());
+        } finally {
+            single.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Check a search out of time still returns a legal move")
+    public void testTimeLimit() {
+        MnkBoard board = new MnkBoard(9, 9, 5);
+        board.play(board.cell(4, 4));
+
+        ParallelMnkSearch parallel = new ParallelMnkSearch(pool);
+        parallel.setTimeLimit(50);
+        int cell = parallel.findBestMove(board);
+
+        assertTrue(parallel.isTimedOut(), "The full 9x9 board cannot be solved in 50 ms");
+        assertTrue(cell >= 0 && board.isEmpty(cell), "The move should be on an empty cell");
+    }
+
+    @Test
+    @DisplayName("Check a cancelled search stops")
+    public void testCancel() {
+        ParallelMnkSearch parallel = new ParallelMnkSearch(pool);
+        parallel.cancel();
+        assertThrows(CancellationException.class, () -> parallel.findBestMove(new MnkBoard(5, 5, 4)));
+    }
+}
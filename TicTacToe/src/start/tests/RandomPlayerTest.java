@@ -2,10 +2,15 @@ package start.tests;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import model.MnkBoard;
 import model.RandomPlayer;
 
 public class RandomPlayerTest {
@@ -44,4 +49,29 @@ public class RandomPlayerTest {
         randomPlayer.setColumn(testColumn);
         assertEquals(testColumn, randomPlayer.getColumn(), "The column should be set correctly");
     }
+
+    @Test
+    @DisplayName("Check random empty cells are drawn only from the empty cells, before and after undo")
+    public void testRandomEmptyCell() {
+        MnkBoard board = new MnkBoard(15, 15, 5);
+        Random random = new Random(1);
+        int last = board.cell(7, 7);
+        for (int cell = 0; cell < board.getCellCount(); cell++) {
+            if (cell != last) {
+                board.play(cell);
+            }
+        }
+        assertEquals(last, RandomPlayer.randomEmptyCell(board, random), "Only one cell is left");
+
+        Set<Integer> empty = new HashSet<>();
+        for (int i = 0; i < 10; i++) {
+            board.undo();
+        }
+        for (int i = 0; i < 1000; i++) {
+            int cell = RandomPlayer.randomEmptyCell(board, random);
+            assertTrue(board.isEmpty(cell), "The cell " + cell + " should be empty");
+            empty.add(cell);
+        }
+        assertEquals(11, empty.size(), "Every empty cell should be drawn");
+    }
 }
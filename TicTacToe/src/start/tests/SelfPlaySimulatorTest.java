@@ -0,0 +1,62 @@
+package start.tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import model.Bot;
+import model.Difficulty;
+import model.LatencyHistogram;
+import model.Move;
+import model.SelfPlaySimulator;
+import model.SimulationResult;
+
+public class SelfPlaySimulatorTest {
+
+    @Test
+    @DisplayName("Check perfect Hal never loses to Mr. Bean and every game is counted")
+    public void testHalAgainstMrBean() {
+        SelfPlaySimulator simulator = new SelfPlaySimulator(() -> Bot.hal(Difficulty.PERFECT), Bot::mrBean);
+        simulator.setThreads(4);
+        SimulationResult result = simulator.run(1000);
+
+        assertEquals(1000, result.getGames(), "Every game should be counted once");
+        assertEquals(0, result.getLosses(), "Perfect play should never lose");
+        assertTrue(result.getWins() > result.getDraws(), "Hal should win most games against random moves");
+        assertTrue(result.getMoves() >= 5 * 1000, "A game takes at least 5 moves");
+        assertTrue(result.getMoveLatency(50) <= result.getMoveLatency(99), "Percentiles should not decrease");
+        assertTrue(result.getMoveLatency(99) <= result.getMaxMoveLatency(), "No percentile exceeds the maximum");
+    }
+
+    @Test
+    @DisplayName("Check perfect Hal always draws against itself")
+    public void testHalAgainstHal() {
+        SimulationResult result = new SelfPlaySimulator(() -> Bot.hal(Difficulty.PERFECT),
+                () -> Bot.hal(Difficulty.PERFECT)).run(100);
+        assertEquals(100, result.getDraws(), "Perfect play on both sides should draw");
+    }
+
+    @Test
+    @DisplayName("Check an illegal move of a bot stops the run")
+    public void testIllegalMove() {
+        SelfPlaySimulator simulator = new SelfPlaySimulator(() -> game -> new Move(1, 1), Bot::mrBean);
+        assertThrows(IllegalStateException.class, () -> simulator.run(10), "Playing twice on a cell should fail");
+    }
+
+    @Test
+    @DisplayName("Check percentiles are read from the histogram within an eighth")
+    public void testLatencyHistogram() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000L);
+        }
+
+        long median = histogram.getPercentile(50);
+        assertTrue(median >= 500_000 && median <= 500_000 * 9 / 8, "The median should be near 500 us: " + median);
+        assertEquals(1_000_000, histogram.getPercentile(100), "The top percentile should be the maximum");
+        assertEquals(1000, histogram.getCount(), "Every duration should be counted");
+    }
+}
@@ -0,0 +1,52 @@
+package start.tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import model.AiPlayer;
+import model.BitBoard;
+import model.Symmetry;
+
+public class SymmetryTest {
+
+    @Test
+    @DisplayName("Check all orientations share one canonical key")
+    public void testCanonicalKey() {
+        int mover = BitBoard.bit(0, 0) | BitBoard.bit(1, 2);
+        int other = BitBoard.bit(0, 1);
+        long key = Symmetry.canonicalKey(mover, other, 0);
+
+        for (int t = 0; t < Symmetry.COUNT; t++) {
+            long rotated = Symmetry.canonicalKey(Symmetry.transformMask(t, mover), Symmetry.transformMask(t, other), 0);
+            assertEquals(key, rotated, "Every orientation should have the same canonical key");
+        }
+    }
+
+    @Test
+    @DisplayName("Check inverse transforms restore every cell")
+    public void testInverse() {
+        for (int t = 0; t < Symmetry.COUNT; t++) {
+            for (int cell = 0; cell < BitBoard.CELLS; cell++) {
+                int moved = Symmetry.transformCell(t, cell);
+                assertEquals(cell, Symmetry.transformCell(Symmetry.inverse(t), moved), "The cell should be restored");
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Check a canonical board maps moves back to the original board")
+    public void testCanonicalize() {
+        String[][] board = { { null, null, "X" }, { null, "O", null }, { null, null, null } };
+        Symmetry.Canonical canonical = Symmetry.canonicalize(board);
+
+        AiPlayer ai = new AiPlayer("X");
+        ai.findBestMove(canonical.getBoard(), "O");
+        int cell = canonical.toOriginalCell(ai.getBestRow(), ai.getBestCol());
+
+        assertNull(board[cell / 3][cell % 3], "The mapped move should be on an empty cell");
+        assertEquals("X", canonical.getBoard()[0][0], "The corner X should move to the top-left corner");
+    }
+}
@@ -0,0 +1,76 @@
+package start.tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import model.MnkBoard;
+import model.MnkSearch;
+import model.ThreatSpaceSearch;
+import model.TranspositionTable;
+
+public class ThreatSpaceSearchTest {
+
+    @Test
+    @DisplayName("Check an open three on the Gomoku board is found as a forced win")
+    public void testOpenThree() {
+        MnkBoard board = new MnkBoard(15, 15, 5);
+        int[] moves = { board.cell(7, 5), board.cell(0, 0), board.cell(7, 6), board.cell(0, 14), board.cell(7, 7),
+                board.cell(14, 0) };
+        for (int cell : moves) {
+            board.play(cell);
+        }
+        long hash = board.getHash();
+
+        ThreatSpaceSearch search = new ThreatSpaceSearch();
+        int cell = search.findWin(board);
+
+        assertEquals(7, cell / 15, "The win should extend the three on row 7, not play " + cell);
+        assertTrue(search.getWinPlies() > 0, "The length of the win should be known");
+        assertEquals(hash, board.getHash(), "The board should be restored after the search");
+    }
+
+    @Test
+    @DisplayName("Check no win is found when the side to move has nothing to force")
+    public void testNoWin() {
+        MnkBoard board = new MnkBoard(15, 15, 5);
+        board.play(board.cell(7, 7));
+
+        ThreatSpaceSearch search = new ThreatSpaceSearch();
+        assertEquals(-1, search.findWin(board), "One stone cannot force a win");
+        assertEquals(0, search.getWinPlies(), "No win should have a length");
+        assertEquals(1, board.getMoveCount(), "The board should be restored after the search");
+    }
+
+    @Test
+    @DisplayName("Check every win found is a forced win according to a full search")
+    public void testSameAsSearch() {
+        Random random = new Random(3);
+        for (int i = 0; i < 100; i++) {
+            MnkBoard board = new MnkBoard(5, 5, 4);
+            for (int ply = 0; ply < 9 + random.nextInt(4) && !board.isGameOver(); ply++) {
+                int cell;
+                do {
+                    cell = random.nextInt(board.getCellCount());
+                } while (!board.isEmpty(cell));
+                board.play(cell);
+            }
+            if (board.isGameOver()) {
+                continue;
+            }
+
+            int win = new ThreatSpaceSearch().findWin(board);
+            if (win >= 0) {
+                board.play(win);
+                MnkSearch search = new MnkSearch(new TranspositionTable(1 << 16));
+                int reply = search.findBestMove(board);
+                assertTrue(board.getWinner() != MnkBoard.NONE || search.getBestScore() < -MnkBoard.MAX_EVALUATION,
+                        "Position " + i + " should be lost after " + win + ", whatever the reply " + reply);
+            }
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package start.tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import model.AiPlayer;
+import model.TranspositionTable;
+
+public class TranspositionTableTest {
+
+    private TranspositionTable table;
+
+    @BeforeEach
+    public void setUp() {
+        table = new TranspositionTable(1000);
+    }
+
+    @Test
+    @DisplayName("Check capacity is rounded up to a power of two")
+    public void testCapacity() {
+        assertEquals(1024, table.getCapacity(), "The capacity should be 1024");
+    }
+
+    @Test
+    @DisplayName("Check stored scores are found again")
+    public void testStoreAndProbe() {
+        table.store(42L, -10, TranspositionTable.UPPER);
+        table.store(0L, 0, TranspositionTable.EXACT);
+
+        long entry = table.probe(42L);
+        assertEquals(-10, TranspositionTable.score(entry), "The stored score should be returned");
+        assertEquals(TranspositionTable.UPPER, TranspositionTable.bound(entry), "The stored bound should be returned");
+        assertEquals(0, TranspositionTable.score(table.probe(0L)), "The score of key 0 should be returned");
+        assertEquals(TranspositionTable.MISS, table.probe(43L), "An unknown key should miss");
+        assertEquals(2, table.getHits(), "There should be 2 hits");
+        assertEquals(1, table.getMisses(), "There should be 1 miss");
+    }
+
+    @Test
+    @DisplayName("Check clear removes entries and counters")
+    public void testClear() {
+        table.store(7L, 10, TranspositionTable.EXACT);
+        table.probe(7L);
+        table.clear();
+
+        assertEquals(TranspositionTable.MISS, table.probe(7L), "The entry should be gone");
+        assertEquals(0, table.getHits(), "The hits should be reset");
+    }
+
+    @Test
+    @DisplayName("Check a repeated search is answered from the shared table")
+    public void testSharedAcrossPlayers() {
+        String[][] board = { { "X", "O", "X" }, { null, "O", null }, { null, "X", null } };
+        new AiPlayer("O").findBestMove(board, "X");
+
+        long misses = AiPlayer.getTranspositionTable().getMisses();
+        new AiPlayer("O").findBestMove(board, "X");
+
+        assertEquals(misses, AiPlayer.getTranspositionTable().getMisses(), "The second search should not miss");
+        assertTrue(AiPlayer.getTranspositionTable().getHitRate() > 0, "The hit rate should be positive");
+    }
+}
@@ -37,11 +37,25 @@ public class BoardCell extends GamePanel implements MouseListener {
 	}
 	
 
+	/**
+	 * Plays the move of the current mover in this cell, if the game is on and the cell is free.
+	 * The move is played on the model at once; painting only draws the mark it left.
+	 * It must be called on the Event Dispatch Thread.
+	 */
 	public void chooseCell() {
-		if(gc.getModel().isInGame() && (!chosen)) {
+		if (gc.getModel().isInGame() && (!chosen)) {
 			clicked = true;
+			chosen = true;
+			mark = gc.getModel().getMover() == 0 ? "X" : "O";
 			repaint();
+
+			gc.getModel().playMove(this.row, this.collumn);
+			if (gc.getModel().checkWinner()) {
+				gc.getMain().getBannerPanel().getDoneButton().setEnabled(true);
 			}
+
+			gc.getModel().changeMover();
+		}
 	}
 	
 	@Override
@@ -54,21 +68,11 @@ public class BoardCell extends GamePanel implements MouseListener {
 	    if (!clicked) {
 	        g2d.setColor(highlighted ? Color.LIGHT_GRAY : Color.YELLOW);
 	        g2d.fillRect(CELL_PADDING, CELL_PADDING, size, size);
+	    } else if ("X".equals(mark)) {
+	        g2d.drawLine(CELL_PADDING, CELL_PADDING, CELL_PADDING + size, CELL_PADDING + size);
+	        g2d.drawLine(CELL_PADDING + size, CELL_PADDING, CELL_PADDING, CELL_PADDING + size);
 	    } else {
-	        if (gc.getModel().getMover() == 0) {
-	            g2d.drawLine(CELL_PADDING, CELL_PADDING, CELL_PADDING + size, CELL_PADDING + size);
-	            g2d.drawLine(CELL_PADDING + size, CELL_PADDING, CELL_PADDING, CELL_PADDING + size);
-	        } else {
-	            g2d.drawOval(CELL_PADDING, CELL_PADDING, size, size);
-	        }
-
-	        chosen = true;
-	        gc.getGameBoard().getBoard()[this.row][this.collumn] = (gc.getModel().getMover() == 0) ? "X" : "O";
-	        if (gc.getModel().checkWinner()) {
-	            gc.getMain().getBannerPanel().getDoneButton().setEnabled(true);
-	        }
-
-	        gc.getModel().changeMover();
+	        g2d.drawOval(CELL_PADDING, CELL_PADDING, size, size);
 	    }
 	}
 
@@ -163,13 +167,7 @@ public class BoardCell extends GamePanel implements MouseListener {
 
 	@Override
 	public void mouseClicked(MouseEvent e) {
-		
-		if(gc.getModel().isInGame() && (!chosen)) {
-		clicked=true;
-		repaint();
-		
-		}
-		
+		chooseCell();
 	}
 
 	@Override
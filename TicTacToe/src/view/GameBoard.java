@@ -7,8 +7,10 @@ import java.awt.Graphics;
 import java.awt.Graphics2D;
 import java.awt.Point;
 import java.util.Arrays;
+import java.util.List;
 
 import controller.GameController;
+import model.Move;
 
 @SuppressWarnings({ "serial" })
 public class GameBoard extends GamePanel {
@@ -103,6 +105,33 @@ public class GameBoard extends GamePanel {
 
     }
 
+    /**
+     * Marks the cells of the line that won the game in red.
+     * 
+     * @param line The cells of the winning line, as given by the game engine.
+     */
+    public void markWinningLine(List<Move> line) {
+        for (Move move : line) {
+            cells[move.getRow()][move.getCol()].setBackground(Color.RED);
+        }
+    }
+
+    /**
+     * Empties every cell of the board, ready for a new game.
+     */
+    public void clear() {
+        for (int row = 0; row < cells.length; row++) {
+            for (int column = 0; column < cells[row].length; column++) {
+                cells[row][column].setChosen(false);
+                cells[row][column].setClicked(false);
+                cells[row][column].setHighlighted(false);
+                cells[row][column].setMark(null);
+                cells[row][column].setBackground(null);
+                board[row][column] = null;
+            }
+        }
+    }
+
     /**
      * Gets the array of BoardCell objects representing the cells of the game board.
      * 